@@ -0,0 +1,69 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.volley.MockWebServer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import fi.iki.elonen.NanoHTTPD;
+
+public class ConnectionWarmerTest extends AndroidTestCase {
+
+    private static final class ResultCapture implements ConnectionWarmer.Listener {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private ConnectionWarmer.Result result;
+
+        @Override
+        public void onConnectionWarmed(ConnectionWarmer.Result result) {
+            this.result = result;
+            latch.countDown();
+        }
+
+        private ConnectionWarmer.Result await() throws InterruptedException {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            return result;
+        }
+    }
+
+    private MockWebServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.stop();
+        super.tearDown();
+    }
+
+    public void testConnectionIsWarmedUp() throws InterruptedException {
+        ResultCapture capture = new ResultCapture();
+
+        ConnectionWarmer.warmUp("http", null, capture, "localhost:8080");
+        ConnectionWarmer.Result result = capture.await();
+
+        assertTrue(result.isSuccess());
+        assertEquals("localhost:8080", result.getAuthority());
+        assertEquals(NanoHTTPD.Method.HEAD, server.mock_getRequestMethod());
+        assertTrue(result.getSavedTimeMillis() >= 0L);
+    }
+
+    public void testFailureIsReportedWithoutSavings() throws InterruptedException {
+        ResultCapture capture = new ResultCapture();
+
+        // Nothing is listening on this port.
+        ConnectionWarmer.warmUp("http", null, capture, "localhost:8081");
+        ConnectionWarmer.Result result = capture.await();
+
+        assertFalse(result.isSuccess());
+        assertNotNull(result.getError());
+        assertEquals(0L, result.getSavedTimeMillis());
+    }
+
+}
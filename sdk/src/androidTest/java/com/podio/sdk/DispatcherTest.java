@@ -0,0 +1,69 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+import com.android.volley.RequestQueue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class DispatcherTest extends AndroidTestCase {
+
+    public void testRequestQueueIsSharedForSameSocketFactory() {
+        RequestQueue first = Dispatcher.getRequestQueue(getContext(), null);
+        RequestQueue second = Dispatcher.getRequestQueue(getContext(), null);
+
+        assertSame(first, second);
+    }
+
+    public void testSerialExecutorRunsTasksInOrder() throws InterruptedException {
+        final int taskCount = 50;
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch latch = new CountDownLatch(taskCount);
+        Executor executor = Dispatcher.newSerialExecutor();
+
+        for (int i = 0; i < taskCount; i++) {
+            final int index = i;
+
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    order.add(index);
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < taskCount; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+    }
+
+    public void testSerialExecutorsShareTheBoundedBackgroundPool() throws InterruptedException {
+        final int executorCount = 10;
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        final CountDownLatch latch = new CountDownLatch(executorCount);
+
+        for (int i = 0; i < executorCount; i++) {
+            Dispatcher.newSerialExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    threads.add(Thread.currentThread());
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(threads.size() <= Dispatcher.DEFAULT_BACKGROUND_THREADS);
+    }
+
+}
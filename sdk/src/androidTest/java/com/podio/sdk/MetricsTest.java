@@ -0,0 +1,71 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+import java.util.Map;
+
+public class MetricsTest extends AndroidTestCase {
+
+    @Override
+    protected void tearDown() throws Exception {
+        Metrics.clearHistograms();
+        super.tearDown();
+    }
+
+    public void testEndpointTemplateHidesIds() {
+        assertEquals("/item/{id}", RequestMetrics.toEndpointTemplate("https://api.podio.com/item/12?fields=files"));
+        assertEquals("/item/app/{id}/filter", RequestMetrics.toEndpointTemplate("https://api.podio.com/item/app/3/filter/"));
+        assertEquals("/", RequestMetrics.toEndpointTemplate("https://api.podio.com"));
+    }
+
+    public void testUnmeasuredPhasesAreLeftOut() {
+        RequestMetrics metrics = new RequestMetrics.Builder(RequestMetrics.Source.API, "GET", "/item/{id}")
+                .withPhase(RequestMetrics.Phase.QUEUE, 100L, 110L)
+                .withPhase(RequestMetrics.Phase.FIRST_BYTE, 110L, 0L)
+                .withPhase(RequestMetrics.Phase.PARSE, 150L, 175L)
+                .build();
+
+        assertEquals(10L, metrics.getDuration(RequestMetrics.Phase.QUEUE));
+        assertEquals(-1L, metrics.getDuration(RequestMetrics.Phase.FIRST_BYTE));
+        assertEquals(-1L, metrics.getDuration(RequestMetrics.Phase.DOWNLOAD));
+        assertEquals(35L, metrics.getTotalDuration());
+        assertEquals("GET /item/{id}", metrics.getHistogramKey());
+    }
+
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 10L);
+        }
+
+        assertEquals(100L, histogram.getCount());
+        assertEquals(10L, histogram.getMin());
+        assertEquals(1000L, histogram.getMax());
+        assertEquals(505L, histogram.getMean());
+
+        // Percentiles are accurate to within a bucket.
+        long median = histogram.getPercentile(50);
+        assertTrue(median >= 500L && median <= 625L);
+        assertEquals(1000L, histogram.getPercentile(100));
+    }
+
+    public void testReportsAreRecordedPerEndpoint() {
+        Metrics.clearHistograms();
+
+        Metrics.report(new RequestMetrics.Builder(RequestMetrics.Source.API, "GET", "/item/{id}")
+                .withPhase(RequestMetrics.Phase.FIRST_BYTE, 100L, 140L)
+                .build());
+        Metrics.report(new RequestMetrics.Builder(RequestMetrics.Source.API, "GET", "/item/{id}")
+                .withPhase(RequestMetrics.Phase.FIRST_BYTE, 100L, 160L)
+                .build());
+
+        Map<String, LatencyHistogram> histograms = Podio.getLatencyHistograms();
+        LatencyHistogram histogram = histograms.get("GET /item/{id}");
+
+        assertNotNull(histogram);
+        assertEquals(2L, histogram.getCount());
+        assertEquals(60L, histogram.getMax());
+    }
+
+}
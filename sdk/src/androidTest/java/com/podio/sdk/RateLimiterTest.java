@@ -0,0 +1,59 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+public class RateLimiterTest extends AndroidTestCase {
+
+    public void testRequestsAreLetThroughWithinBudget() {
+        RateLimiter rateLimiter = new RateLimiter(10, 0.0f);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0L, rateLimiter.acquire(Request.Priority.NORMAL));
+        }
+
+        assertTrue(rateLimiter.acquire(Request.Priority.NORMAL) > 0L);
+    }
+
+    public void testInteractiveShareIsReservedFromBackgroundTraffic() {
+        RateLimiter rateLimiter = new RateLimiter(10, 0.2f);
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(0L, rateLimiter.acquire(Request.Priority.PREFETCH));
+        }
+
+        // The last two tokens are reserved for interactive requests.
+        assertTrue(rateLimiter.acquire(Request.Priority.PREFETCH) > 0L);
+        assertEquals(0L, rateLimiter.acquire(Request.Priority.NORMAL));
+        assertEquals(0L, rateLimiter.acquire(Request.Priority.IMMEDIATE));
+    }
+
+    public void testHeadersUpdateBudget() {
+        RateLimiter rateLimiter = new RateLimiter();
+
+        rateLimiter.update("1000", "1");
+
+        assertEquals(1000, rateLimiter.getLimit());
+        assertEquals(0L, rateLimiter.acquire(Request.Priority.NORMAL));
+        long delay = rateLimiter.acquire(Request.Priority.NORMAL);
+        // One token refills in 3.6 seconds at 1000 requests per hour.
+        assertTrue(delay > 0L && delay <= 3600L);
+    }
+
+    public void testMissingHeadersLeaveBudgetUntouched() {
+        RateLimiter rateLimiter = new RateLimiter(100, 0.0f);
+
+        rateLimiter.update(null, "not a number");
+
+        assertEquals(100, rateLimiter.getLimit());
+        assertEquals(100, rateLimiter.getAvailableTokens());
+    }
+
+    public void testRateLimitedResponseEmptiesBucket() {
+        RateLimiter rateLimiter = new RateLimiter(100, 0.0f);
+
+        rateLimiter.onRateLimited();
+
+        assertTrue(rateLimiter.acquire(Request.Priority.IMMEDIATE) > 0L);
+    }
+
+}
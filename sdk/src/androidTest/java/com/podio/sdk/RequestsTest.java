@@ -0,0 +1,155 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RequestsTest extends AndroidTestCase {
+
+    private static final class ResultCapture<T> implements Request.ResultListener<T>, Request.ErrorListener {
+        private T result;
+        private Throwable error;
+        private int callCount;
+
+        @Override
+        public boolean onRequestPerformed(T content) {
+            result = content;
+            callCount++;
+            return false;
+        }
+
+        @Override
+        public boolean onErrorOccurred(Throwable cause) {
+            error = cause;
+            callCount++;
+            return true;
+        }
+    }
+
+    private static <T> ResultCapture<T> capture(Request<T> request) {
+        ResultCapture<T> capture = new ResultCapture<T>();
+        request.withResultListener(capture).withErrorListener(capture);
+        return capture;
+    }
+
+    public void testMapTransformsResult() {
+        ComposedRequest<Integer> source = new ComposedRequest<Integer>();
+        ResultCapture<String> capture = capture(Requests.map(source, new Requests.Function<Integer, String>() {
+            @Override
+            public String apply(Integer input) {
+                return "#" + input;
+            }
+        }));
+
+        source.complete(42);
+
+        assertEquals("#42", capture.result);
+        assertEquals(1, capture.callCount);
+    }
+
+    public void testFlatMapIssuesDependentRequest() {
+        ComposedRequest<Integer> source = new ComposedRequest<Integer>();
+        final ComposedRequest<String> dependent = new ComposedRequest<String>();
+        ResultCapture<String> capture = capture(Requests.flatMap(source, new Requests.RequestFunction<Integer, String>() {
+            @Override
+            public Request<String> apply(Integer input) {
+                return dependent;
+            }
+        }));
+
+        source.complete(1);
+        assertEquals(0, capture.callCount);
+
+        dependent.complete("app");
+        assertEquals("app", capture.result);
+    }
+
+    public void testAllOfDeliversResultsInRequestOrder() {
+        ComposedRequest<String> first = new ComposedRequest<String>();
+        ComposedRequest<Integer> second = new ComposedRequest<Integer>();
+        ResultCapture<List<Object>> capture = capture(Requests.allOf(first, second));
+
+        second.complete(2);
+        assertEquals(0, capture.callCount);
+
+        first.complete("one");
+        assertEquals(1, capture.callCount);
+        assertEquals("one", capture.result.get(0));
+        assertEquals(2, capture.result.get(1));
+    }
+
+    public void testAllOfFailsFastAndCancelsRemainingRequests() {
+        ComposedRequest<String> first = new ComposedRequest<String>();
+        ComposedRequest<String> second = new ComposedRequest<String>();
+        ResultCapture<List<Object>> capture = capture(Requests.allOf(first, second));
+        PodioError error = new PodioError("failure");
+
+        first.fail(error);
+
+        assertSame(error, capture.error);
+        // The second request was canceled and will not deliver.
+        assertFalse(second.complete("two"));
+        assertEquals(1, capture.callCount);
+    }
+
+    public void testZipCombinesResults() {
+        ComposedRequest<String> first = new ComposedRequest<String>();
+        ComposedRequest<Integer> second = new ComposedRequest<Integer>();
+        ResultCapture<String> capture = capture(Requests.zip(first, second, new Requests.Combiner<String, Integer, String>() {
+            @Override
+            public String combine(String a, Integer b) {
+                return a + b;
+            }
+        }));
+
+        first.complete("item");
+        second.complete(7);
+
+        assertEquals("item7", capture.result);
+    }
+
+    public void testCancelPropagatesToSources() {
+        ComposedRequest<String> source = new ComposedRequest<String>();
+        Request<List<Object>> composed = Requests.allOf(source);
+
+        composed.cancel();
+
+        assertFalse(source.complete("too late"));
+    }
+
+    public void testTimeoutFailsWithNoResponseError() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Throwable[] error = new Throwable[1];
+        ComposedRequest<String> source = new ComposedRequest<String>();
+
+        Requests.timeout(source, 100, TimeUnit.MILLISECONDS)
+                .withErrorListener(new Request.ErrorListener() {
+                    @Override
+                    public boolean onErrorOccurred(Throwable cause) {
+                        error[0] = cause;
+                        latch.countDown();
+                        return true;
+                    }
+                });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(error[0] instanceof NoResponseError);
+        assertFalse(source.complete("too late"));
+    }
+
+    public void testWaitForResultReturnsOnceDelivered() {
+        final ComposedRequest<String> request = new ComposedRequest<String>();
+
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                request.complete("done");
+            }
+        }).start();
+
+        assertEquals("done", request.waitForResult(5));
+    }
+
+}
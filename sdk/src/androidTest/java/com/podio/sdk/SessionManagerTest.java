@@ -0,0 +1,89 @@
+package com.podio.sdk;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.internal.Utils;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class SessionManagerTest extends AndroidTestCase {
+
+    @Mock
+    SessionManager.Refresher refresher;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        MockitoAnnotations.initMocks(this);
+        SessionManager.setRefreshMargin(SessionManager.DEFAULT_REFRESH_MARGIN_MILLIS, TimeUnit.MILLISECONDS);
+        Session.set(null, null, 0L);
+        SessionManager.setup(getContext(), refresher);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Session.set(null, null, 0L);
+        SessionManager.setRefreshMargin(SessionManager.DEFAULT_REFRESH_MARGIN_MILLIS, TimeUnit.MILLISECONDS);
+        super.tearDown();
+    }
+
+    public void testSessionWithUnknownExpiryNeverExpires() {
+        Session.set("access", "refresh", 0L);
+
+        assertFalse(SessionManager.isExpired());
+        assertFalse(SessionManager.isAboutToExpire());
+    }
+
+    public void testSessionWithinRefreshMarginIsAboutToExpire() {
+        SessionManager.setRefreshMargin(10, TimeUnit.MINUTES);
+        Session.set("access", "refresh", Utils.currentTimeSeconds() + TimeUnit.MINUTES.toSeconds(5));
+
+        assertFalse(SessionManager.isExpired());
+        assertTrue(SessionManager.isAboutToExpire());
+
+        SessionManager.setRefreshMargin(1, TimeUnit.MINUTES);
+        assertFalse(SessionManager.isAboutToExpire());
+    }
+
+    public void testExpiredSessionIsExpired() {
+        Session.set("access", "refresh", Utils.currentTimeSeconds() - 1);
+
+        assertTrue(SessionManager.isExpired());
+        assertTrue(SessionManager.isAboutToExpire());
+    }
+
+    public void testRefreshIfNeededOnlyRefreshesWhenAboutToExpire() {
+        SessionManager.setRefreshMargin(10, TimeUnit.MINUTES);
+        Session.set("access", "refresh", Utils.currentTimeSeconds() + TimeUnit.HOURS.toSeconds(1));
+        SessionManager.refreshIfNeeded();
+        verify(refresher, never()).refreshSession();
+
+        Session.set("access", "refresh", Utils.currentTimeSeconds() - 1);
+        SessionManager.refreshIfNeeded();
+        verify(refresher, timeout(1000).atLeastOnce()).refreshSession();
+    }
+
+    public void testRefreshIsNotAttemptedWithoutRefreshToken() {
+        Session.set("access", null, Utils.currentTimeSeconds() - 1);
+        SessionManager.refresh();
+
+        verify(refresher, never()).refreshSession();
+    }
+
+    public void testRefreshIsScheduledAheadOfExpiry() {
+        SessionManager.setRefreshMargin(1, TimeUnit.MINUTES);
+        // Expires in 62 seconds, hence the refresh is due in 2 seconds.
+        Session.set("access", "refresh", Utils.currentTimeSeconds() + 62);
+
+        verify(refresher, never()).refreshSession();
+        verify(refresher, timeout(5000).times(1)).refreshSession();
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.podio.sdk.parser;
+
+import android.os.Debug;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.podio.sdk.domain.Item;
+import com.podio.sdk.json.JsonParser;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Compares the amount of memory allocated while parsing a 500 item filter response from a String
+ * with the amount allocated while parsing the very same response straight from its raw bytes.
+ */
+public class JsonParserMemoryBenchmarkTest extends AndroidTestCase {
+    private static final String TAG = "JsonParserBenchmark";
+    private static final int ITEM_COUNT = 500;
+    private static final int ROUNDS = 5;
+
+    private static byte[] buildFilterResponse(int itemCount) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"total\":").append(itemCount)
+                .append(",\"filtered\":").append(itemCount)
+                .append(",\"items\":[");
+
+        for (int i = 0; i < itemCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            builder.append("{\"item_id\":").append(i + 1)
+                    .append(",\"app_item_id\":").append(i + 1)
+                    .append(",\"title\":\"Item title number ").append(i).append(" with some extra text\"")
+                    .append(",\"link\":\"https://podio.com/org/space/apps/app/items/").append(i + 1).append("\"")
+                    .append(",\"created_on\":\"2015-06-01 12:00:00\"")
+                    .append(",\"fields\":[")
+                    .append("{\"field_id\":1,\"external_id\":\"title\",\"type\":\"text\",\"label\":\"Title\",")
+                    .append("\"values\":[{\"value\":\"A reasonably long text value for item ").append(i).append("\"}]},")
+                    .append("{\"field_id\":2,\"external_id\":\"status\",\"type\":\"category\",\"label\":\"Status\",")
+                    .append("\"values\":[{\"value\":{\"id\":1,\"status\":\"active\",\"text\":\"Open\",\"color\":\"DCEBD8\"}}]},")
+                    .append("{\"field_id\":3,\"external_id\":\"estimate\",\"type\":\"number\",\"label\":\"Estimate\",")
+                    .append("\"values\":[{\"value\":\"").append(i).append(".5000\"}]}")
+                    .append("]}");
+        }
+
+        builder.append("]}");
+        return builder.toString().getBytes("UTF-8");
+    }
+
+    private static long measureStringParsing(byte[] data) throws Exception {
+        Debug.resetThreadAllocSize();
+        Item.FilterResult result = JsonParser.fromJson(new String(data, "UTF-8"), Item.FilterResult.class);
+        long allocated = Debug.getThreadAllocSize();
+
+        assertEquals(ITEM_COUNT, result.getItems().size());
+        return allocated;
+    }
+
+    private static long measureStreamParsing(byte[] data) throws Exception {
+        Debug.resetThreadAllocSize();
+        Item.FilterResult result = JsonParser.fromJson(new ByteArrayInputStream(data), "UTF-8", Item.FilterResult.class);
+        long allocated = Debug.getThreadAllocSize();
+
+        assertEquals(ITEM_COUNT, result.getItems().size());
+        return allocated;
+    }
+
+    @SuppressWarnings("deprecation")
+    public void testStreamParsingAllocatesLessThanStringParsing() throws Exception {
+        byte[] data = buildFilterResponse(ITEM_COUNT);
+
+        // Warm up the Gson type adapter cache so it doesn't affect the measurements.
+        measureStringParsing(data);
+        measureStreamParsing(data);
+
+        long stringBytes = Long.MAX_VALUE;
+        long streamBytes = Long.MAX_VALUE;
+
+        Debug.startAllocCounting();
+        try {
+            for (int i = 0; i < ROUNDS; i++) {
+                stringBytes = Math.min(stringBytes, measureStringParsing(data));
+                streamBytes = Math.min(streamBytes, measureStreamParsing(data));
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+
+        Log.i(TAG, "Response size: " + data.length + " bytes");
+        Log.i(TAG, "Allocated when parsing from String: " + stringBytes + " bytes");
+        Log.i(TAG, "Allocated when parsing from bytes: " + streamBytes + " bytes");
+
+        // The String based path needs an extra UTF-16 copy of the entire body.
+        assertTrue(streamBytes < stringBytes);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.podio.sdk.volley;
+
+import android.test.AndroidTestCase;
+
+public class CircuitBreakerTest extends AndroidTestCase {
+
+    public void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("item", 3, 60000L);
+
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+        assertEquals(1, circuitBreaker.getRejectedCount());
+        assertEquals(3, circuitBreaker.getFailureCount());
+    }
+
+    public void testSuccessResetsFailureCount() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("item", 2, 60000L);
+
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(1, circuitBreaker.getConsecutiveFailureCount());
+    }
+
+    public void testHalfOpenLetsSingleTrialThrough() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("conversation", 1, 50L);
+        circuitBreaker.recordFailure();
+        assertFalse(circuitBreaker.allowRequest());
+
+        Thread.sleep(100L);
+
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    public void testFailedTrialReopens() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("stream", 1, 50L);
+        circuitBreaker.recordFailure();
+
+        Thread.sleep(100L);
+        assertTrue(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+}
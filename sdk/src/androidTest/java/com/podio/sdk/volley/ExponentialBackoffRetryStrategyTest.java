@@ -0,0 +1,59 @@
+package com.podio.sdk.volley;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.ApiError;
+import com.podio.sdk.ConnectionError;
+import com.podio.sdk.NoResponseError;
+import com.podio.sdk.Request;
+
+import java.util.Random;
+
+public class ExponentialBackoffRetryStrategyTest extends AndroidTestCase {
+
+    private ExponentialBackoffRetryStrategy strategy;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        strategy = new ExponentialBackoffRetryStrategy(3, 100L, 250L, new Random(42L));
+    }
+
+    public void testDelayIsJitteredWithinExponentialCeiling() {
+        NoResponseError error = new NoResponseError("timeout");
+
+        for (int i = 0; i < 100; i++) {
+            long first = strategy.getRetryDelayMillis(Request.Method.GET, error, 1);
+            long second = strategy.getRetryDelayMillis(Request.Method.GET, error, 2);
+            long third = strategy.getRetryDelayMillis(Request.Method.GET, error, 3);
+
+            assertTrue(first >= 0 && first <= 100L);
+            assertTrue(second >= 0 && second <= 200L);
+            // Capped by the maximum delay.
+            assertTrue(third >= 0 && third <= 250L);
+        }
+    }
+
+    public void testRetriesAreLimited() {
+        NoResponseError error = new NoResponseError("timeout");
+
+        assertEquals(RetryStrategy.NO_RETRY, strategy.getRetryDelayMillis(Request.Method.GET, error, 4));
+    }
+
+    public void testNonIdempotentRequestIsNotRetried() {
+        NoResponseError error = new NoResponseError("timeout");
+
+        assertEquals(RetryStrategy.NO_RETRY, strategy.getRetryDelayMillis(Request.Method.POST, error, 1));
+        assertTrue(strategy.getRetryDelayMillis(Request.Method.PUT, error, 1) >= 0);
+        assertTrue(strategy.getRetryDelayMillis(Request.Method.DELETE, error, 1) >= 0);
+    }
+
+    public void testOnlyTransientErrorsAreRetried() {
+        String json = "{\"error\":\"unavailable\",\"error_description\":\"Service unavailable\"}";
+
+        assertTrue(strategy.getRetryDelayMillis(Request.Method.GET, new ApiError(json, 503), 1) >= 0);
+        assertEquals(RetryStrategy.NO_RETRY, strategy.getRetryDelayMillis(Request.Method.GET, new ApiError(json, 404), 1));
+        assertEquals(RetryStrategy.NO_RETRY, strategy.getRetryDelayMillis(Request.Method.GET, new ConnectionError("offline"), 1));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.podio.sdk.volley;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+
+public class LatencyTrackerTest extends AndroidTestCase {
+
+    public void testFallbackUntilEnoughSamples() {
+        LatencyTracker latencyTracker = new LatencyTracker(100);
+
+        for (int i = 1; i < LatencyTracker.MIN_SAMPLES; i++) {
+            latencyTracker.record(i);
+        }
+
+        assertEquals(1000L, latencyTracker.getPercentile(95, 1000L));
+    }
+
+    public void testPercentileOfRecentSamples() {
+        LatencyTracker latencyTracker = new LatencyTracker(100);
+
+        for (int i = 100; i >= 1; i--) {
+            latencyTracker.record(i);
+        }
+
+        assertEquals(95L, latencyTracker.getPercentile(95, 1000L));
+        assertEquals(50L, latencyTracker.getPercentile(50, 1000L));
+    }
+
+    public void testOldSamplesAreForgotten() {
+        LatencyTracker latencyTracker = new LatencyTracker(LatencyTracker.MIN_SAMPLES);
+
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+            latencyTracker.record(5000L);
+        }
+
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+            latencyTracker.record(10L);
+        }
+
+        assertEquals(10L, latencyTracker.getPercentile(99, 1000L));
+    }
+
+    public void testTimeoutNeverOutlastsDeadline() {
+        VolleyClient.VolleyRetryPolicy unbounded = new VolleyClient.VolleyRetryPolicy();
+        VolleyClient.VolleyRetryPolicy bounded = new VolleyClient.VolleyRetryPolicy(SystemClock.elapsedRealtime() + 2000L);
+        VolleyClient.VolleyRetryPolicy passed = new VolleyClient.VolleyRetryPolicy(SystemClock.elapsedRealtime() - 1L);
+
+        assertEquals(VolleyClient.CLIENT_DEFAULT_TIMEOUT_MS, unbounded.getCurrentTimeout());
+        assertTrue(bounded.getCurrentTimeout() <= 2000);
+        assertTrue(bounded.getCurrentTimeout() > 0);
+        assertEquals(1, passed.getCurrentTimeout());
+    }
+
+}
@@ -6,6 +6,7 @@ import android.net.Uri;
 
 import com.podio.sdk.Filter;
 import com.podio.sdk.Request;
+import com.podio.sdk.RequestOptions;
 import com.podio.sdk.json.JsonParser;
 
 public class MockRestClient<T> extends VolleyClient {
@@ -23,4 +24,20 @@ public class MockRestClient<T> extends VolleyClient {
         this.data = requestData != null ? JsonParser.toJson(requestData) : null;
         return VolleyRequest.newRequest(userAgent, method, this.uri.toString(), this.data, classOfExpectedResult);
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Request<T> request(Request.Method method, Filter filter, Object requestData, Class<T> classOfExpectedResult, Request.Priority priority) {
+        VolleyRequest<T> request = (VolleyRequest<T>) request(method, filter, requestData, classOfExpectedResult);
+        request.setRequestPriority(priority);
+        return request;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Request<T> request(Request.Method method, Filter filter, Object requestData, Class<T> classOfExpectedResult, RequestOptions options) {
+        VolleyRequest<T> request = (VolleyRequest<T>) request(method, filter, requestData, classOfExpectedResult, options.getPriority());
+        request.setDeadline(getDeadline(options));
+        return request;
+    }
 }
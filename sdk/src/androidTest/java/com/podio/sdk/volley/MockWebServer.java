@@ -3,6 +3,7 @@ package com.podio.sdk.volley;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.json.JSONObject;
 
@@ -15,6 +16,12 @@ public class MockWebServer extends NanoHTTPD {
 
     private HashMap<String, JSONObject> responses;
 
+    private volatile String validAccessToken;
+    private volatile boolean isAuthFailing;
+    private volatile long authDelayMillis;
+    private final AtomicInteger authRequestCount;
+    private final AtomicInteger unauthorizedCount;
+
     private String requestUri;
     private String requestBody;
     private Method requestMethod;
@@ -24,6 +31,38 @@ public class MockWebServer extends NanoHTTPD {
     public MockWebServer() {
         super(8080);
         responses = new HashMap<String, JSONObject>();
+        authRequestCount = new AtomicInteger(0);
+        unauthorizedCount = new AtomicInteger(0);
+    }
+
+    /**
+     * Makes the server respond with "401 Unauthorized" to any non-auth request that isn't
+     * authorized with the given access token. Pass null to accept any request.
+     */
+    public void mock_setValidAccessToken(String accessToken) {
+        this.validAccessToken = accessToken;
+    }
+
+    /**
+     * Makes the server reject any auth request with a "400 Bad Request" status.
+     */
+    public void mock_setAuthFailing(boolean isAuthFailing) {
+        this.isAuthFailing = isAuthFailing;
+    }
+
+    /**
+     * Makes the server wait the given number of milliseconds before responding to auth requests.
+     */
+    public void mock_setAuthDelay(long millis) {
+        this.authDelayMillis = millis;
+    }
+
+    public int mock_getAuthRequestCount() {
+        return authRequestCount.get();
+    }
+
+    public int mock_getUnauthorizedCount() {
+        return unauthorizedCount.get();
     }
 
     public void mock_setResponse(JSONObject response) {
@@ -71,9 +110,30 @@ public class MockWebServer extends NanoHTTPD {
 
         Response result;
 
-        if (uri.equals("/auth/token")) {
-            String json = session != null ? session.toString() : "{}";
-            result = new Response(json);
+        if (uri.equals("/auth/token") || uri.equals("/oauth/token")) {
+            authRequestCount.incrementAndGet();
+
+            if (authDelayMillis > 0) {
+                try {
+                    Thread.sleep(authDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (isAuthFailing) {
+                String json = "{\"error\":\"invalid_grant\",\"error_description\":\"Invalid refresh_token\"}";
+                result = new Response(Response.Status.BAD_REQUEST, "application/json", json);
+            } else {
+                String json = session != null ? session.toString() : "{}";
+                result = new Response(json);
+            }
+        } else if (validAccessToken != null && !("Bearer " + validAccessToken).equals(headers.get("authorization"))) {
+            unauthorizedCount.incrementAndGet();
+            String json = "{\"error\":\"unauthorized\",\"error_description\":\"expired_token\"}";
+            result = new Response(Response.Status.UNAUTHORIZED, "application/json", json);
+            // HttpURLConnection refuses a 401 without an authentication challenge.
+            result.addHeader("WWW-Authenticate", "OAuth2 realm=\"podio\"");
         } else {
             JSONObject r = responses.get(uri);
             String json = r != null ? r.toString() : response != null ? response.toString() : "{}";
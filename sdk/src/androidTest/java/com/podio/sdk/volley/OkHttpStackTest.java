@@ -0,0 +1,199 @@
+package com.podio.sdk.volley;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.HttpStack;
+import com.android.volley.toolbox.HurlStack;
+import com.android.volley.toolbox.NoCache;
+import com.android.volley.toolbox.StringRequest;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Compares the OkHttp network stack with the platform's HttpURLConnection stack against a local
+ * TLS stand-in for the API server. The fan-out benchmark sends a burst of concurrent requests, as a
+ * screen loading its content would, and logs the time each stack needs together with the number
+ * of connections it opened. The timings are only logged, as they depend on the device.
+ */
+public class OkHttpStackTest extends AndroidTestCase {
+    private static final String TAG = "OkHttpStackTest";
+
+    private static final int FAN_OUT = 12;
+    private static final int NETWORK_THREADS = 4;
+    private static final long SERVER_LATENCY_MS = 100L;
+
+    private static final class FanOutResult {
+        private final long elapsedMs;
+        private final int successCount;
+        private final int connectionCount;
+
+        private FanOutResult(long elapsedMs, int successCount, int connectionCount) {
+            this.elapsedMs = elapsedMs;
+            this.successCount = successCount;
+            this.connectionCount = connectionCount;
+        }
+    }
+
+    private SSLSocketFactory sslSocketFactory;
+    private MockWebServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        sslSocketFactory = TestCertificate.newSslSocketFactory();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (server != null) {
+            server.shutdown();
+        }
+
+        super.tearDown();
+    }
+
+    public void testBodyAndHeadersAreSent() throws Exception {
+        startServer();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String[] result = new String[1];
+
+        RequestQueue queue = newRequestQueue(new OkHttpStack(sslSocketFactory));
+        queue.add(new StringRequest(com.android.volley.Request.Method.PUT, server.getUrl("/item/1").toString(), new Response.Listener<String>() {
+            @Override
+            public void onResponse(String response) {
+                result[0] = response;
+                latch.countDown();
+            }
+        }, newErrorListener(latch)) {
+            @Override
+            public Map<String, String> getHeaders() {
+                HashMap<String, String> headers = new HashMap<String, String>();
+                headers.put("Authorization", "OAuth2 access-token");
+                return headers;
+            }
+
+            @Override
+            public byte[] getBody() {
+                return "{\"title\":\"value\"}".getBytes();
+            }
+
+            @Override
+            public String getBodyContentType() {
+                return "application/json; charset=UTF-8";
+            }
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        queue.stop();
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("PUT", request.getMethod());
+        assertEquals("OAuth2 access-token", request.getHeader("Authorization"));
+        assertEquals("{\"title\":\"value\"}", request.getBody().readUtf8());
+        assertEquals("{}", result[0]);
+    }
+
+    public void testFanOutBenchmark() throws Exception {
+        startServer();
+        FanOutResult urlConnection = fanOut(new HurlStack(null, sslSocketFactory));
+        server.shutdown();
+
+        startServer();
+        FanOutResult okHttp = fanOut(new OkHttpStack(sslSocketFactory));
+
+        Log.i(TAG, String.format("HttpURLConnection: %d requests in %d ms over %d connections",
+                FAN_OUT, urlConnection.elapsedMs, urlConnection.connectionCount));
+        Log.i(TAG, String.format("OkHttp: %d requests in %d ms over %d connections",
+                FAN_OUT, okHttp.elapsedMs, okHttp.connectionCount));
+
+        assertEquals(FAN_OUT, urlConnection.successCount);
+        assertEquals(FAN_OUT, okHttp.successCount);
+        // With HTTP/2 all requests share a single connection. Should the platform not support
+        // ALPN, the stack falls back to pooled HTTP/1.1 connections, but never opens more.
+        assertTrue(okHttp.connectionCount >= 1);
+        assertTrue(okHttp.connectionCount <= urlConnection.connectionCount);
+    }
+
+    private void startServer() throws Exception {
+        server = new MockWebServer();
+        server.useHttps(sslSocketFactory, false);
+        server.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                Thread.sleep(SERVER_LATENCY_MS);
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json; charset=UTF-8")
+                        .setBody("{}");
+            }
+        });
+        server.start(InetAddress.getByName("localhost"), 0);
+    }
+
+    private FanOutResult fanOut(HttpStack stack) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(FAN_OUT);
+        final AtomicInteger successCount = new AtomicInteger(0);
+        RequestQueue queue = newRequestQueue(stack);
+        long start = SystemClock.uptimeMillis();
+
+        for (int i = 0; i < FAN_OUT; i++) {
+            queue.add(new StringRequest(server.getUrl("/item/" + i).toString(), new Response.Listener<String>() {
+                @Override
+                public void onResponse(String response) {
+                    successCount.incrementAndGet();
+                    latch.countDown();
+                }
+            }, newErrorListener(latch)));
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        long elapsedMs = SystemClock.uptimeMillis() - start;
+        queue.stop();
+
+        // The first request on each connection has sequence number zero.
+        int connectionCount = 0;
+        for (int i = 0; i < FAN_OUT; i++) {
+            if (server.takeRequest().getSequenceNumber() == 0) {
+                connectionCount++;
+            }
+        }
+
+        return new FanOutResult(elapsedMs, successCount.get(), connectionCount);
+    }
+
+    private RequestQueue newRequestQueue(HttpStack stack) {
+        RequestQueue queue = new RequestQueue(new NoCache(), new BasicNetwork(stack), NETWORK_THREADS);
+        queue.start();
+        return queue;
+    }
+
+    private static Response.ErrorListener newErrorListener(final CountDownLatch latch) {
+        return new Response.ErrorListener() {
+            @Override
+            public void onErrorResponse(VolleyError error) {
+                Log.e(TAG, "Request failed", error);
+                latch.countDown();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,231 @@
+package com.podio.sdk.volley;
+
+import android.net.Uri;
+import android.os.Debug;
+import android.os.SystemClock;
+
+import com.podio.sdk.Client;
+import com.podio.sdk.Filter;
+import com.podio.sdk.LatencyHistogram;
+import com.podio.sdk.Request;
+import com.podio.sdk.RequestMetrics;
+import com.podio.sdk.json.JsonParser;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the requests of a recorded session through a client, typically against a {@link
+ * ReplayServer} playing back the same session, and measures the throughput, the latency and the
+ * allocations on the SDK side. Responses are parsed into a Map, unless another result class has
+ * been registered for their endpoint, so the parsing cost can be made representative.
+ */
+public class ReplayDriver {
+
+    /**
+     * The measurements of a replayed session.
+     */
+    public static final class Report {
+        private final int requestCount;
+        private final int errorCount;
+        private final long elapsedMillis;
+        private final long allocatedBytes;
+        private final LatencyHistogram latencies;
+
+        private Report(int requestCount, int errorCount, long elapsedMillis, long allocatedBytes, LatencyHistogram latencies) {
+            this.requestCount = requestCount;
+            this.errorCount = errorCount;
+            this.elapsedMillis = elapsedMillis;
+            this.allocatedBytes = allocatedBytes;
+            this.latencies = latencies;
+        }
+
+        public int getRequestCount() {
+            return requestCount;
+        }
+
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return The number of bytes allocated by all threads of the process during the replay.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * @return The latencies from issuing a request until its result was delivered.
+         */
+        public LatencyHistogram getLatencies() {
+            return latencies;
+        }
+
+        public double getRequestsPerSecond() {
+            return elapsedMillis > 0L ? requestCount * 1000.0d / elapsedMillis : requestCount;
+        }
+
+        @Override
+        public String toString() {
+            return "requests=" + requestCount +
+                    " errors=" + errorCount +
+                    " elapsed=" + elapsedMillis + "ms" +
+                    " throughput=" + Math.round(getRequestsPerSecond()) + "/s" +
+                    " allocated=" + allocatedBytes + "B" +
+                    " latency: " + latencies;
+        }
+    }
+
+    private static final class RecordedPath extends Filter {
+
+        RecordedPath(String url) {
+            super();
+            Uri uri = Uri.parse(url);
+
+            for (String segment : uri.getPathSegments()) {
+                addPathSegment(segment);
+            }
+
+            for (String key : uri.getQueryParameterNames()) {
+                addQueryParameter(key, uri.getQueryParameter(key));
+            }
+        }
+
+    }
+
+    private final Client client;
+    private final HashMap<String, Class<?>> resultClasses;
+    private float timeScale;
+
+    public ReplayDriver(Client client) {
+        this.client = client;
+        this.resultClasses = new HashMap<String, Class<?>>();
+        this.timeScale = 0.0f;
+    }
+
+    /**
+     * Parses the responses of an endpoint into the given class rather than a Map.
+     *
+     * @param endpoint
+     *         The endpoint template, e.g. "/item/{id}".
+     * @param classOfResult
+     *         The class to parse the responses into.
+     *
+     * @return This driver, for chaining.
+     */
+    public ReplayDriver withResultClass(String endpoint, Class<?> classOfResult) {
+        resultClasses.put(endpoint, classOfResult);
+        return this;
+    }
+
+    /**
+     * @param timeScale
+     *         The factor to scale the recorded gaps between requests with, 1 to send them as the
+     *         original session did, 0 (the default) to send them all at once.
+     *
+     * @return This driver, for chaining.
+     */
+    public ReplayDriver withTimeScale(float timeScale) {
+        this.timeScale = Math.max(timeScale, 0.0f);
+        return this;
+    }
+
+    /**
+     * Replays the given exchanges and waits for all of them to be delivered. Auth requests are
+     * skipped, the client is expected to hold a session already. Must not be called on the main
+     * thread, as the results are delivered there.
+     *
+     * @param exchanges
+     *         The recorded exchanges to replay.
+     * @param maxSeconds
+     *         The longest time to wait for the replay to finish.
+     *
+     * @return The measurements, or null if the replay didn't finish in time.
+     */
+    @SuppressWarnings("deprecation")
+    public Report replay(List<ReplayServer.Exchange> exchanges, long maxSeconds) throws InterruptedException {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final AtomicInteger errorCount = new AtomicInteger(0);
+        int requestCount = 0;
+
+        for (ReplayServer.Exchange exchange : exchanges) {
+            if (!isAuthRequest(exchange)) {
+                requestCount++;
+            }
+        }
+
+        final CountDownLatch latch = new CountDownLatch(requestCount);
+
+        Debug.startAllocCounting();
+        Debug.resetGlobalAllocSize();
+        long startedAt = SystemClock.elapsedRealtime();
+
+        try {
+            for (ReplayServer.Exchange exchange : exchanges) {
+                if (isAuthRequest(exchange)) {
+                    continue;
+                }
+
+                long wait = startedAt + (long) (exchange.getOffset() * timeScale) - SystemClock.elapsedRealtime();
+
+                if (wait > 0L) {
+                    Thread.sleep(wait);
+                }
+
+                final long issuedAt = SystemClock.elapsedRealtime();
+
+                send(exchange).withResultListener(new Request.ResultListener<Object>() {
+                    @Override
+                    public boolean onRequestPerformed(Object content) {
+                        latencies.record(SystemClock.elapsedRealtime() - issuedAt);
+                        latch.countDown();
+                        return false;
+                    }
+                }).withErrorListener(new Request.ErrorListener() {
+                    @Override
+                    public boolean onErrorOccurred(Throwable cause) {
+                        latencies.record(SystemClock.elapsedRealtime() - issuedAt);
+                        errorCount.incrementAndGet();
+                        latch.countDown();
+                        return true;
+                    }
+                });
+            }
+
+            if (!latch.await(maxSeconds, TimeUnit.SECONDS)) {
+                return null;
+            }
+
+            long elapsed = SystemClock.elapsedRealtime() - startedAt;
+            return new Report(requestCount, errorCount.get(), elapsed, Debug.getGlobalAllocSize(), latencies);
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Request<Object> send(ReplayServer.Exchange exchange) {
+        Request.Method method = Request.Method.valueOf(exchange.getMethod());
+        Class<?> classOfResult = resultClasses.get(RequestMetrics.toEndpointTemplate(exchange.getUrl()));
+        String body = exchange.getRequestBody();
+        Object item = body != null && body.length() > 0 ? JsonParser.fromJson(body, Map.class) : null;
+
+        return client.request(method, new RecordedPath(exchange.getUrl()), item,
+                (Class<Object>) (classOfResult != null ? classOfResult : Map.class));
+    }
+
+    private static boolean isAuthRequest(ReplayServer.Exchange exchange) {
+        String url = exchange.getUrl();
+        return url.startsWith("/oauth/token") || url.startsWith("/auth/token");
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.podio.sdk.volley;
+
+import android.net.Uri;
+import android.util.Base64;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import fi.iki.elonen.NanoHTTPD;
+
+/**
+ * Plays back the exchanges of a session recorded by a {@link TrafficRecorder}. Each request is
+ * answered with the first unserved exchange recorded for the same method, path and query, or for
+ * the same method and path, after waiting for as long as the original response took. The wait
+ * can be compressed, or skipped altogether, with {@link #setTimeScale(float)}. A request matching
+ * only already served exchanges gets the last of them again.
+ * <p/>
+ * NanoHTTPD only knows a handful of status codes, so any other status is played back as the
+ * closest one it knows.
+ */
+public class ReplayServer extends NanoHTTPD {
+
+    /**
+     * A single recorded request and its response.
+     */
+    public static final class Exchange {
+        private final JSONObject json;
+        private final String method;
+        private final String path;
+        private final String query;
+
+        private boolean isServed;
+
+        Exchange(JSONObject json) {
+            Uri uri = Uri.parse(json.optString("url", "/"));
+
+            this.json = json;
+            this.method = json.optString("method", "GET").toUpperCase(Locale.US);
+            this.path = uri.getPath();
+            this.query = uri.getEncodedQuery();
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUrl() {
+            return json.optString("url", "/");
+        }
+
+        public String getRequestBody() {
+            return json.isNull("request_body") ? null : json.optString("request_body", null);
+        }
+
+        public int getStatus() {
+            return json.optInt("status", 200);
+        }
+
+        /**
+         * @return When the request was sent, in milliseconds since the first recorded request.
+         */
+        public long getOffset() {
+            return json.optLong("at", 0L);
+        }
+
+        /**
+         * @return How long the original response took, in milliseconds.
+         */
+        public long getDuration() {
+            return json.optLong("duration", 0L);
+        }
+
+        private byte[] getResponseBody() throws IOException {
+            if (json.has("response_body_base64")) {
+                return Base64.decode(json.optString("response_body_base64"), Base64.NO_WRAP);
+            }
+
+            return json.optString("response_body", "").getBytes("UTF-8");
+        }
+
+        private boolean matches(String method, String path, String query, boolean isQueryIgnored) {
+            return this.method.equals(method) &&
+                    this.path.equals(path) &&
+                    (isQueryIgnored || (this.query == null ? query == null : this.query.equals(query)));
+        }
+    }
+
+    // Headers that describe the recorded transfer rather than the response itself.
+    private static final List<String> TRANSFER_HEADERS = new ArrayList<String>();
+
+    static {
+        Collections.addAll(TRANSFER_HEADERS, "content-length", "content-type", "content-encoding",
+                "transfer-encoding", "connection", "date");
+    }
+
+    /**
+     * Reads the exchanges of a recorded session.
+     *
+     * @param file
+     *         The file the session was recorded to.
+     *
+     * @return The exchanges, in the order they were recorded.
+     */
+    public static List<Exchange> load(File file) throws IOException, JSONException {
+        ArrayList<Exchange> exchanges = new ArrayList<Exchange>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+
+        try {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().length() > 0) {
+                    exchanges.add(new Exchange(new JSONObject(line)));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        return exchanges;
+    }
+
+    private final List<Exchange> exchanges;
+    private volatile float timeScale;
+
+    public ReplayServer(int port, List<Exchange> exchanges) {
+        super(port);
+        this.exchanges = exchanges;
+        this.timeScale = 1.0f;
+    }
+
+    /**
+     * @param timeScale
+     *         The factor to scale the recorded response times with, 1 to respond as fast as the
+     *         original server did, 0 to respond right away.
+     */
+    public void setTimeScale(float timeScale) {
+        this.timeScale = Math.max(timeScale, 0.0f);
+    }
+
+    @Override
+    public Response serve(String uri, Method method, Map<String, String> headers,
+            Map<String, String> parms, Map<String, String> files) {
+
+        // NanoHTTPD reports the form body of a POST as its query string.
+        String query = method == Method.GET || method == Method.DELETE ?
+                parms.get("NanoHttpd.QUERY_STRING") : null;
+
+        Exchange exchange = findExchange(method.name(), uri, query != null && query.length() > 0 ? query : null);
+
+        if (exchange == null) {
+            return new Response(Response.Status.NOT_FOUND, MIME_PLAINTEXT, "Not recorded: " + method + " " + uri);
+        }
+
+        long wait = (long) (exchange.getDuration() * timeScale);
+
+        if (wait > 0L) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        try {
+            JSONObject recordedHeaders = exchange.json.optJSONObject("response_headers");
+            String mimeType = "application/json";
+            Response result = new Response(getStatus(exchange.getStatus()), mimeType, new ByteArrayInputStream(exchange.getResponseBody()));
+
+            if (recordedHeaders != null) {
+                Iterator<String> names = recordedHeaders.keys();
+
+                while (names.hasNext()) {
+                    String name = names.next();
+                    String value = recordedHeaders.optString(name);
+
+                    if ("content-type".equals(name.toLowerCase(Locale.US))) {
+                        result.setMimeType(value);
+                    } else if (!TRANSFER_HEADERS.contains(name.toLowerCase(Locale.US))) {
+                        result.addHeader(name, value);
+                    }
+                }
+            }
+
+            if (exchange.getStatus() == 401) {
+                // HttpURLConnection refuses a 401 without an authentication challenge.
+                result.addHeader("WWW-Authenticate", "OAuth2 realm=\"podio\"");
+            }
+
+            return result;
+        } catch (IOException e) {
+            return new Response(Response.Status.INTERNAL_ERROR, MIME_PLAINTEXT, e.getMessage());
+        }
+    }
+
+    private synchronized Exchange findExchange(String method, String path, String query) {
+        Exchange lastServed = null;
+
+        for (int pass = 0; pass < 2 && lastServed == null; pass++) {
+            for (Exchange exchange : exchanges) {
+                if (exchange.matches(method, path, query, pass == 1)) {
+                    if (!exchange.isServed) {
+                        exchange.isServed = true;
+                        return exchange;
+                    }
+
+                    lastServed = exchange;
+                }
+            }
+        }
+
+        return lastServed;
+    }
+
+    private static Response.Status getStatus(int code) {
+        Response.Status closest = code >= 500 ? Response.Status.INTERNAL_ERROR :
+                code >= 400 ? Response.Status.BAD_REQUEST : Response.Status.OK;
+
+        for (Response.Status status : Response.Status.values()) {
+            if (status.getRequestStatus() == code) {
+                return status;
+            }
+        }
+
+        return closest;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.podio.sdk.volley;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.Filter;
+import com.podio.sdk.Request;
+import com.podio.sdk.Session;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestCancellationTest extends AndroidTestCase {
+    private static final int REQUEST_COUNT = 10;
+
+    private static final class ItemPath extends Filter {
+
+        ItemPath(int id) {
+            super("item");
+            addPathSegment(Integer.toString(id));
+        }
+
+    }
+
+    private MockWebServer server;
+    private VolleyClient client;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockWebServer();
+        server.start();
+        server.mock_setValidAccessToken("access-token");
+
+        client = new VolleyClient();
+        client.setup(getContext(), "http", "localhost:8080", "client-id", "client-secret", null, null);
+        client.setRevalidationEnabled(false);
+        // Make sure most of the requests are still waiting for a slot when they're canceled.
+        client.setConcurrencyLimit(Request.Priority.NORMAL, 1);
+
+        Session.set("access-token", "refresh-token", 0L);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        client.setConcurrencyLimit(Request.Priority.NORMAL, 3);
+        server.stop();
+        super.tearDown();
+    }
+
+    public void testCanceledRequestsDoNotCallTheirListeners() throws Exception {
+        final Object tag = new Object();
+        final AtomicInteger callbackCount = new AtomicInteger(0);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        Request.ResultListener<Object> resultListener = new Request.ResultListener<Object>() {
+            @Override
+            public boolean onRequestPerformed(Object content) {
+                callbackCount.incrementAndGet();
+                return false;
+            }
+        };
+
+        Request.ErrorListener errorListener = new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(Throwable cause) {
+                callbackCount.incrementAndGet();
+                return true;
+            }
+        };
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            client.request(Request.Method.GET, new ItemPath(i), null, Object.class)
+                    .withTag(tag)
+                    .withResultListener(resultListener)
+                    .withErrorListener(errorListener);
+        }
+
+        // An untagged request is queued behind the tagged ones and must survive the cancellation.
+        client.request(Request.Method.GET, new ItemPath(REQUEST_COUNT), null, Object.class)
+                .withResultListener(new Request.ResultListener<Object>() {
+                    @Override
+                    public boolean onRequestPerformed(Object content) {
+                        latch.countDown();
+                        return false;
+                    }
+                });
+
+        client.cancelAll(tag);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, callbackCount.get());
+    }
+
+}
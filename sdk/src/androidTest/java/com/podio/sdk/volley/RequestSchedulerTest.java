@@ -0,0 +1,88 @@
+package com.podio.sdk.volley;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.Request;
+
+import java.util.ArrayList;
+
+public class RequestSchedulerTest extends AndroidTestCase {
+
+    private ArrayList<VolleyRequest<?>> executed;
+    private RequestScheduler scheduler;
+
+    private static VolleyRequest<Object> newRequest(Request.Priority priority) {
+        VolleyRequest<Object> request = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item", null, Object.class);
+        request.setRequestPriority(priority);
+        return request;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        executed = new ArrayList<VolleyRequest<?>>();
+        scheduler = new RequestScheduler(new RequestScheduler.Host() {
+            @Override
+            public void execute(VolleyRequest<?> request) {
+                executed.add(request);
+            }
+        }, 2, 1, 1);
+    }
+
+    public void testPriorityIsMappedToVolleyPriority() {
+        assertEquals(com.android.volley.Request.Priority.IMMEDIATE, newRequest(Request.Priority.IMMEDIATE).getPriority());
+        assertEquals(com.android.volley.Request.Priority.NORMAL, newRequest(Request.Priority.NORMAL).getPriority());
+        assertEquals(com.android.volley.Request.Priority.LOW, newRequest(Request.Priority.PREFETCH).getPriority());
+    }
+
+    public void testConcurrencyIsLimitedPerPriorityClass() {
+        VolleyRequest<Object> normal1 = newRequest(Request.Priority.NORMAL);
+        VolleyRequest<Object> normal2 = newRequest(Request.Priority.NORMAL);
+        VolleyRequest<Object> immediate = newRequest(Request.Priority.IMMEDIATE);
+
+        scheduler.submit(normal1);
+        scheduler.submit(normal2);
+        scheduler.submit(immediate);
+
+        // The normal class is full, but the immediate class has its own slots.
+        assertEquals(2, executed.size());
+        assertSame(normal1, executed.get(0));
+        assertSame(immediate, executed.get(1));
+        assertEquals(1, scheduler.getPendingCount(Request.Priority.NORMAL));
+
+        normal1.cancel();
+        assertEquals(3, executed.size());
+        assertSame(normal2, executed.get(2));
+    }
+
+    public void testPrefetchIsPausedWhileInteractiveWorkIsOutstanding() {
+        VolleyRequest<Object> normal = newRequest(Request.Priority.NORMAL);
+        VolleyRequest<Object> prefetch = newRequest(Request.Priority.PREFETCH);
+
+        scheduler.submit(normal);
+        scheduler.submit(prefetch);
+
+        assertEquals(1, executed.size());
+        assertEquals(1, scheduler.getPendingCount(Request.Priority.PREFETCH));
+
+        normal.cancel();
+        assertEquals(2, executed.size());
+        assertSame(prefetch, executed.get(1));
+        assertEquals(1, scheduler.getRunningCount(Request.Priority.PREFETCH));
+    }
+
+    public void testCanceledPendingRequestIsNeverExecuted() {
+        VolleyRequest<Object> normal1 = newRequest(Request.Priority.NORMAL);
+        VolleyRequest<Object> normal2 = newRequest(Request.Priority.NORMAL);
+
+        scheduler.submit(normal1);
+        scheduler.submit(normal2);
+        normal2.cancel();
+        normal1.cancel();
+
+        assertEquals(1, executed.size());
+        assertEquals(0, scheduler.getPendingCount(Request.Priority.NORMAL));
+        assertEquals(0, scheduler.getRunningCount(Request.Priority.NORMAL));
+    }
+
+}
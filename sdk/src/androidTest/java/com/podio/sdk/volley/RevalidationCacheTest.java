@@ -0,0 +1,75 @@
+package com.podio.sdk.volley;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.domain.Item;
+
+import java.io.File;
+
+public class RevalidationCacheTest extends AndroidTestCase {
+
+    private File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = new File(getContext().getCacheDir(), "revalidation-test");
+        new RevalidationCache(directory, 4, 1024 * 1024).clear();
+    }
+
+    public void testKeyDependsOnAccessToken() {
+        String keyA = RevalidationCache.buildKey("https://test/item/1", "token-a");
+        String keyB = RevalidationCache.buildKey("https://test/item/1", "token-b");
+
+        assertNotNull(keyA);
+        assertFalse(keyA.equals(keyB));
+        assertEquals(keyA, RevalidationCache.buildKey("https://test/item/1", "token-a"));
+    }
+
+    public void testResponsesWithoutValidatorsAreIgnored() {
+        RevalidationCache cache = new RevalidationCache(directory, 4, 1024 * 1024);
+        String key = RevalidationCache.buildKey("https://test/item/1", "token");
+        cache.put(key, null, null, "{}".getBytes(), "UTF-8", new Item());
+
+        assertNull(cache.get(key));
+    }
+
+    public void testParsedResultIsServedFromMemory() {
+        RevalidationCache cache = new RevalidationCache(directory, 4, 1024 * 1024);
+        String key = RevalidationCache.buildKey("https://test/item/1", "token");
+        Item item = new Item();
+        cache.put(key, "\"abc\"", null, "{\"item_id\":1}".getBytes(), "UTF-8", item);
+
+        RevalidationCache.Entry entry = cache.get(key);
+        assertNotNull(entry);
+        assertEquals("\"abc\"", entry.eTag);
+        assertNull(entry.lastModified);
+        assertSame(item, cache.getResult(key, Item.class));
+    }
+
+    public void testPersistedBodyIsParsedWhenNotInMemory() {
+        String key = RevalidationCache.buildKey("https://test/item/1", "token");
+        new RevalidationCache(directory, 4, 1024 * 1024)
+                .put(key, null, "Mon, 01 Jun 2015 12:00:00 GMT", "{\"item_id\":7}".getBytes(), "UTF-8", new Item());
+
+        // A new instance has an empty memory cache, hence we're forced to read from disk.
+        RevalidationCache cache = new RevalidationCache(directory, 4, 1024 * 1024);
+        RevalidationCache.Entry entry = cache.get(key);
+        assertNotNull(entry);
+        assertEquals("Mon, 01 Jun 2015 12:00:00 GMT", entry.lastModified);
+
+        Item item = cache.getResult(key, Item.class);
+        assertNotNull(item);
+        assertEquals(7L, item.getId());
+    }
+
+    public void testClearRemovesAllEntries() {
+        RevalidationCache cache = new RevalidationCache(directory, 4, 1024 * 1024);
+        String key = RevalidationCache.buildKey("https://test/item/1", "token");
+        cache.put(key, "\"abc\"", null, "{}".getBytes(), "UTF-8", new Item());
+        cache.clear();
+
+        assertNull(cache.get(key));
+        assertNull(cache.getResult(key, Item.class));
+    }
+}
@@ -0,0 +1,94 @@
+package com.podio.sdk.volley;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.Filter;
+import com.podio.sdk.PodioError;
+import com.podio.sdk.Request;
+import com.podio.sdk.Session;
+
+import org.json.JSONObject;
+
+import java.util.Map;
+
+public class SynchronousVolleyClientTest extends AndroidTestCase {
+
+    private static final class ItemPath extends Filter {
+
+        ItemPath(int id) {
+            super("item");
+            addPathSegment(Integer.toString(id));
+        }
+
+    }
+
+    private MockWebServer server;
+    private SynchronousVolleyClient client;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockWebServer();
+        server.start();
+
+        JSONObject session = new JSONObject();
+        session.put("access_token", "fresh-access-token");
+        session.put("refresh_token", "fresh-refresh-token");
+        session.put("expires_in", 3600);
+        server.mock_setSession(session);
+        server.mock_setValidAccessToken("fresh-access-token");
+        server.mock_setResponse("/item/1", new JSONObject().put("item_id", 1));
+
+        client = new SynchronousVolleyClient();
+        client.setup(getContext(), "http", "localhost:8080", "client-id", "client-secret", null, null);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.stop();
+        super.tearDown();
+    }
+
+    public void testRequestIsPerformedAndDeliveredOnCallingThread() {
+        Session.set("fresh-access-token", "fresh-refresh-token", 0L);
+        final Thread caller = Thread.currentThread();
+        final Thread[] deliveryThread = new Thread[1];
+
+        Request<Map> request = client.request(Request.Method.GET, new ItemPath(1), null, Map.class);
+        request.withResultListener(new Request.ResultListener<Map>() {
+            @Override
+            public boolean onRequestPerformed(Map content) {
+                deliveryThread[0] = Thread.currentThread();
+                return false;
+            }
+        });
+
+        // The request had already delivered when it was returned.
+        assertSame(caller, deliveryThread[0]);
+        assertEquals(1.0, request.waitForResult(0).get("item_id"));
+    }
+
+    public void testUnauthorizedRequestIsSentAgainAfterRefresh() {
+        Session.set("expired-access-token", "expired-refresh-token", 0L);
+
+        Map result = client.execute(Request.Method.GET, new ItemPath(1), null, Map.class);
+
+        assertEquals(1.0, result.get("item_id"));
+        assertEquals(1, server.mock_getAuthRequestCount());
+        assertEquals(1, server.mock_getUnauthorizedCount());
+        assertEquals("fresh-access-token", Session.accessToken());
+    }
+
+    public void testFailedRequestThrowsError() {
+        Session.set("expired-access-token", "expired-refresh-token", 0L);
+        server.mock_setAuthFailing(true);
+
+        try {
+            client.execute(Request.Method.GET, new ItemPath(1), null, Map.class);
+            fail("Expected a PodioError");
+        } catch (PodioError e) {
+            assertEquals(1, server.mock_getAuthRequestCount());
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.podio.sdk.volley;
+
+import android.util.Base64;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManagerFactory;
+
+/**
+ * A self-signed "localhost" certificate for local TLS test servers. The returned socket factory
+ * both serves the certificate and trusts it, so it can be handed to the server and the client
+ * alike.
+ */
+final class TestCertificate {
+    private static final char[] PASSWORD = "password".toCharArray();
+
+    private static final String CERTIFICATE = "" +
+            "MIIDJzCCAg+gAwIBAgIUf5AI3DbAgA/3XzMImZ6nRr4VlpIwDQYJKoZIhvcNAQEL" +
+            "BQAwFDESMBAGA1UEAwwJbG9jYWxob3N0MCAXDTI2MTAxNzAyMDMwMFoYDzIxMjYw" +
+            "OTIzMDIwMzAwWjAUMRIwEAYDVQQDDAlsb2NhbGhvc3QwggEiMA0GCSqGSIb3DQEB" +
+            "AQUAA4IBDwAwggEKAoIBAQCUh7PL9PLQS2FB6V0IEjpsT13kzmcsHpgTdxT/Pj1y" +
+            "HzSzUODb2jaLth7DDb6tC8upqYxRJRdLh0Wy4zBuxAzwDjxdpjz2w2zYhAhOCGaA" +
+            "jxMT9B3iTbw6EVF/tPTlJWvmcZyRj6gG2s8SSefNLbSxDpdSHEWYu3ozi768cfWM" +
+            "AynW6asg68/Fu98fIOgTUpW5IsTatpomzy7IydnGI3eMf6TX6RcTwGuaW+d5PR2g" +
+            "ZzaZgKp3HkqQSc9RFPGuS1h6YPqZTwUDAxMv1nTjtlpPVORq2QOijUNtnCiGyDyX" +
+            "xSXSDcG2Y8Vu3xqTJDz+4JFtPMhO5JZVEthD4fq1hSm/AgMBAAGjbzBtMB0GA1Ud" +
+            "DgQWBBQjofjjWS1DB9fv6iyjtHCwVy2LgzAfBgNVHSMEGDAWgBQjofjjWS1DB9fv" +
+            "6iyjtHCwVy2LgzAPBgNVHRMBAf8EBTADAQH/MBoGA1UdEQQTMBGCCWxvY2FsaG9z" +
+            "dIcEfwAAATANBgkqhkiG9w0BAQsFAAOCAQEAiyvDhUpjFU72vG7uRM+TtasHh58M" +
+            "hs22BKmKhrrO8qZuCVr6IVKcuTNoaAQkul93HVpxqLFez0h95bAnxb1SVzA7yuuG" +
+            "mF/k1on5cnAnGTM18MKXf70DAertYk70Ju2ECnV3/4SB2qKcfo41Hi2ILn70lOx/" +
+            "NipPf5WbCcznq8yWaaV0RM+Wj56OQXeKE7vZ30PuofXQmHehIrWwxt7mduWUbWAf" +
+            "22I2dxNm1dqqjjMm+mBEJH1haS8K6A0iHCSUcAmGtttrBWC/tSp86+ctFkpallmB" +
+            "LPfIFaZXM5mxtoEQ7MrRpK18ZGJs+uY6QgD4yMuzyQsb05G2mX5TIuhiIQ==";
+
+    private static final String PRIVATE_KEY = "" +
+            "MIIEvQIBADANBgkqhkiG9w0BAQEFAASCBKcwggSjAgEAAoIBAQCUh7PL9PLQS2FB" +
+            "6V0IEjpsT13kzmcsHpgTdxT/Pj1yHzSzUODb2jaLth7DDb6tC8upqYxRJRdLh0Wy" +
+            "4zBuxAzwDjxdpjz2w2zYhAhOCGaAjxMT9B3iTbw6EVF/tPTlJWvmcZyRj6gG2s8S" +
+            "SefNLbSxDpdSHEWYu3ozi768cfWMAynW6asg68/Fu98fIOgTUpW5IsTatpomzy7I" +
+            "ydnGI3eMf6TX6RcTwGuaW+d5PR2gZzaZgKp3HkqQSc9RFPGuS1h6YPqZTwUDAxMv" +
+            "1nTjtlpPVORq2QOijUNtnCiGyDyXxSXSDcG2Y8Vu3xqTJDz+4JFtPMhO5JZVEthD" +
+            "4fq1hSm/AgMBAAECggEABk4UZc4KGKl6gW/EkTkk3cAovjO80XSjBACEFamwtg15" +
+            "ETuXr/19X0Tl3WXR+EqN5K/b0v3+FSiy3rsiLTGJUw9npJoP8HGvRymjqJxWrZJl" +
+            "Pu2X7ylZmiVuDjvCQY/rGqcr/Ena2h+jtqUIf/82smVqKwQkOC2NLG78M8eqorzX" +
+            "FNqiTT7ZXA8l+nLrJTFlo8eyKoTd6SL1qHoEl5KiNz+jGt4p9f6thLpT1JKMa7DV" +
+            "bnIVE6QpckDkZEVKpCBwZI+0Wov7yfZlFxgR9UbyVwxnZ88zm6rC8+Kf3PnN6FRH" +
+            "ZRe49mPL0AQnmmKOgVuQXO+weD0NNmnBQav4B0TDwQKBgQDG8p5mUujjgpLvvyzG" +
+            "3iOaA+3Xq3fbRPSqXmFxeXYXNZBganBPuiGzw2R52qnRwDvFSsxbXSa18U1S9PNq" +
+            "yXW2Eh5977DdFM2pz6hyvEknvGENmrEjkWf2wBOVkQEpa7tXEp9lXg4UXsw61B4R" +
+            "udMozW+OupkEVOX9cA5ScITBLwKBgQC/H8PkkBFoCbFOMU8VPCCNLOTfutYr1XFb" +
+            "bTLA3EzGTwjQ/OgL+4RC2ETbl7skSPUMJs/1f8+6T6I/JsnXAULoEQQDW16hlglU" +
+            "QhMKrg+OaRtdserT1yOWDOe++4Nzaay1aHYV2Oi4oC4lob87SgPdQn0JvEam2LOa" +
+            "SDYlfLFccQKBgDd5O1XI1Itrw1D6e5/QHRk68zzp4PfRGG/Q9VbQyW7bTrCzvTFd" +
+            "8zvOxdt8b1G/SmtO2gC3zq145Vi2WJF0L1BfaQUwqp5ayKYK8yta+QMNcfp7Id2L" +
+            "E/Qnxs4zqqFEGu7CkJORUFe5vzTAJMpIiGqeLfccbMJace7jKfsuyLWdAoGBAIcQ" +
+            "gbVCgqqNPvnNKuAMz8w0z8G0Hap4elVsBBP7G16Bd++I6sudAUjj4TV2MtBfppzh" +
+            "yNDrc/dsU3JhjP4ebBPoAngE2AlFKG6dCyve+itf5/D8zMDMJt/hWtzCjZDAO0cv" +
+            "/VNPKJdgy3vYpHXXxodUd1yr6xn5xmLfaTRwvD5hAoGAM1QFjqiv9LiVQvAj2I5d" +
+            "ObxlwtQQMSspzZoKWJ7Ia8gSX340/jJ5TKiV7HfjU/OKsbKRIhsjyQ9PidiuEXkC" +
+            "/PTYYbRAUdITtZYbX/NtZusiiYH9G8CfVRhkPFtknV4vnRcpCBib9+stAVSbxhiT" +
+            "UCRWWGwWtq2CIIcNtsDkSqc=";
+
+    static SSLSocketFactory newSslSocketFactory() throws GeneralSecurityException {
+        try {
+            CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+            Certificate certificate = certificateFactory.generateCertificate(new ByteArrayInputStream(Base64.decode(CERTIFICATE, Base64.DEFAULT)));
+            PrivateKey privateKey = KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(Base64.decode(PRIVATE_KEY, Base64.DEFAULT)));
+
+            KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+            keyStore.load(null, PASSWORD);
+            keyStore.setKeyEntry("localhost", privateKey, PASSWORD, new Certificate[]{certificate});
+            keyStore.setCertificateEntry("localhost-certificate", certificate);
+
+            KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagerFactory.init(keyStore, PASSWORD);
+            TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(keyStore);
+
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagerFactory.getKeyManagers(), trustManagerFactory.getTrustManagers(), null);
+
+            return sslContext.getSocketFactory();
+        } catch (IOException e) {
+            throw new GeneralSecurityException(e);
+        }
+    }
+
+    private TestCertificate() {
+    }
+
+}
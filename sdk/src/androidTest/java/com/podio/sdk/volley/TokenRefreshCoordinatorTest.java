@@ -0,0 +1,139 @@
+package com.podio.sdk.volley;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.Filter;
+import com.podio.sdk.Request;
+import com.podio.sdk.Session;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TokenRefreshCoordinatorTest extends AndroidTestCase {
+    private static final int REQUEST_COUNT = 100;
+
+    private static final class ItemPath extends Filter {
+
+        ItemPath(int id) {
+            super("item");
+            addPathSegment(Integer.toString(id));
+        }
+
+    }
+
+    private MockWebServer server;
+    private VolleyClient client;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new MockWebServer();
+        server.start();
+
+        JSONObject session = new JSONObject();
+        session.put("access_token", "fresh-access-token");
+        session.put("refresh_token", "fresh-refresh-token");
+        session.put("expires_in", 3600);
+        server.mock_setSession(session);
+        server.mock_setValidAccessToken("fresh-access-token");
+        // Keep the refresh in flight long enough for all requests to fail authentication.
+        server.mock_setAuthDelay(2000);
+
+        client = new VolleyClient();
+        client.setup(getContext(), "http", "localhost:8080", "client-id", "client-secret", null, null);
+        client.setRevalidationEnabled(false);
+
+        Session.set("expired-access-token", "expired-refresh-token", 0L);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.stop();
+        super.tearDown();
+    }
+
+    public void testConcurrentUnauthorizedRequestsShareOneRefresh() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(REQUEST_COUNT);
+        final AtomicInteger successCount = new AtomicInteger(0);
+        final AtomicInteger errorCount = new AtomicInteger(0);
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            client.request(Request.Method.GET, new ItemPath(i), null, Object.class)
+                    .withResultListener(new Request.ResultListener<Object>() {
+                        @Override
+                        public boolean onRequestPerformed(Object content) {
+                            successCount.incrementAndGet();
+                            latch.countDown();
+                            return false;
+                        }
+                    })
+                    .withErrorListener(new Request.ErrorListener() {
+                        @Override
+                        public boolean onErrorOccurred(Throwable cause) {
+                            errorCount.incrementAndGet();
+                            latch.countDown();
+                            return true;
+                        }
+                    });
+        }
+
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+        assertEquals(REQUEST_COUNT, successCount.get());
+        assertEquals(0, errorCount.get());
+        assertEquals(1, server.mock_getAuthRequestCount());
+        assertEquals(1, client.getRefreshCount());
+        assertEquals(REQUEST_COUNT, server.mock_getUnauthorizedCount());
+        assertEquals("fresh-access-token", Session.accessToken());
+    }
+
+    public void testParkedRequestsFailTogetherWhenRefreshFails() throws Exception {
+        server.mock_setAuthFailing(true);
+        final CountDownLatch latch = new CountDownLatch(REQUEST_COUNT);
+        final AtomicInteger errorCount = new AtomicInteger(0);
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            client.request(Request.Method.GET, new ItemPath(i), null, Object.class)
+                    .withErrorListener(new Request.ErrorListener() {
+                        @Override
+                        public boolean onErrorOccurred(Throwable cause) {
+                            errorCount.incrementAndGet();
+                            latch.countDown();
+                            return true;
+                        }
+                    });
+        }
+
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+        assertEquals(REQUEST_COUNT, errorCount.get());
+        assertEquals(1, server.mock_getAuthRequestCount());
+        assertEquals(REQUEST_COUNT, server.mock_getUnauthorizedCount());
+    }
+
+    public void testReplayedRequestsAreNotParkedAgain() throws Exception {
+        // The refreshed session is rejected as well, hence the replays fail on their own.
+        server.mock_setValidAccessToken("some-other-access-token");
+        final CountDownLatch latch = new CountDownLatch(REQUEST_COUNT);
+        final AtomicInteger errorCount = new AtomicInteger(0);
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            client.request(Request.Method.GET, new ItemPath(i), null, Object.class)
+                    .withErrorListener(new Request.ErrorListener() {
+                        @Override
+                        public boolean onErrorOccurred(Throwable cause) {
+                            errorCount.incrementAndGet();
+                            latch.countDown();
+                            return true;
+                        }
+                    });
+        }
+
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+        assertEquals(REQUEST_COUNT, errorCount.get());
+        assertEquals(1, server.mock_getAuthRequestCount());
+        assertEquals(2 * REQUEST_COUNT, server.mock_getUnauthorizedCount());
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.podio.sdk.volley;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.android.volley.toolbox.HttpStack;
+import com.android.volley.toolbox.HurlStack;
+import com.podio.sdk.Request;
+import com.podio.sdk.Session;
+
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TrafficReplayTest extends AndroidTestCase {
+    private static final String TAG = "TrafficReplay";
+
+    private File file;
+    private MockWebServer mockServer;
+    private ReplayServer replayServer;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = new File(getContext().getCacheDir(), "traffic.jsonl");
+        file.delete();
+
+        mockServer = new MockWebServer();
+        mockServer.start();
+
+        JSONObject session = new JSONObject();
+        session.put("access_token", "secret-access-token");
+        session.put("refresh_token", "secret-refresh-token");
+        session.put("expires_in", 3600);
+        mockServer.mock_setSession(session);
+        mockServer.mock_setResponse("/item/1", new JSONObject().put("item_id", 1).put("title", "First"));
+        mockServer.mock_setResponse("/item/2", new JSONObject().put("item_id", 2).put("title", "Second"));
+
+        Session.set("secret-access-token", "secret-refresh-token", 0L);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mockServer.stop();
+
+        if (replayServer != null) {
+            replayServer.stop();
+        }
+
+        file.delete();
+        super.tearDown();
+    }
+
+    public void testSecretsAreRedacted() {
+        assertEquals("{\"access_token\":\"REDACTED\",\"expires_in\":3600}",
+                TrafficRecorder.redact("{\"access_token\":\"abc\",\"expires_in\":3600}"));
+        assertEquals("grant_type=refresh_token&refresh_token=REDACTED&client_secret=REDACTED",
+                TrafficRecorder.redact("grant_type=refresh_token&refresh_token=abc&client_secret=def"));
+        assertEquals("/item/1?fields=title", TrafficRecorder.redact("/item/1?fields=title"));
+    }
+
+    public void testRecordedSessionIsPlayedBack() throws Exception {
+        record();
+
+        String recording = readFile();
+        assertFalse(recording.contains("secret-access-token"));
+        assertFalse(recording.contains("secret-refresh-token"));
+        assertFalse(recording.contains("client-secret"));
+
+        List<ReplayServer.Exchange> exchanges = ReplayServer.load(file);
+        assertEquals(3, exchanges.size());
+        assertEquals("/item/1?fields=title", exchanges.get(1).getUrl());
+
+        // The replay server takes the place of the original one.
+        mockServer.stop();
+        replayServer = new ReplayServer(8080, exchanges);
+        replayServer.setTimeScale(0.0f);
+        replayServer.start();
+
+        VolleyClient client = new VolleyClient();
+        client.setup(getContext(), "http", "localhost:8080", "client-id", "client-secret", null, null);
+        client.setRevalidationEnabled(false);
+
+        ReplayDriver.Report report = new ReplayDriver(client).replay(exchanges, 10);
+        Log.i(TAG, "Replayed session: " + report);
+
+        assertNotNull(report);
+        assertEquals(2, report.getRequestCount());
+        assertEquals(0, report.getErrorCount());
+        assertEquals(2L, report.getLatencies().getCount());
+
+        // Exchanges that have all been played back are served once more.
+        Map result = client.request(Request.Method.GET, new ReplayItemPath(2), null, Map.class).waitForResult(10);
+        assertEquals("Second", result.get("title"));
+    }
+
+    private void record() throws Exception {
+        TrafficRecorder recorder = new TrafficRecorder(file);
+        HttpStack stack = recorder.wrap(new HurlStack());
+
+        HashMap<String, String> params = new HashMap<String, String>();
+        params.put("grant_type", "refresh_token");
+        params.put("refresh_token", "secret-refresh-token");
+        params.put("client_secret", "client-secret");
+
+        stack.performRequest(VolleyRequest.newAuthRequest(null, "http://localhost:8080/oauth/token", params), new HashMap<String, String>());
+        stack.performRequest(VolleyRequest.newRequest(null, Request.Method.GET, "http://localhost:8080/item/1?fields=title", null, Map.class), new HashMap<String, String>());
+        stack.performRequest(VolleyRequest.newRequest(null, Request.Method.GET, "http://localhost:8080/item/2", null, Map.class), new HashMap<String, String>());
+
+        recorder.close();
+    }
+
+    private String readFile() throws Exception {
+        StringBuilder builder = new StringBuilder();
+
+        for (ReplayServer.Exchange exchange : ReplayServer.load(file)) {
+            builder.append(exchange).append('\n');
+        }
+
+        return builder.toString();
+    }
+
+    private static final class ReplayItemPath extends com.podio.sdk.Filter {
+
+        ReplayItemPath(int id) {
+            super("item");
+            addPathSegment(Integer.toString(id));
+        }
+
+    }
+
+}
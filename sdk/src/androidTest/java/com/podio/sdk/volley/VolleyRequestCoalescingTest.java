@@ -0,0 +1,74 @@
+package com.podio.sdk.volley;
+
+import android.test.AndroidTestCase;
+
+import com.podio.sdk.Request;
+import com.podio.sdk.domain.Item;
+
+public class VolleyRequestCoalescingTest extends AndroidTestCase {
+
+    public void testFollowerOutlivesCanceledLeader() {
+        VolleyRequest<Item> leader = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+        VolleyRequest<Item> follower = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+
+        assertTrue(leader.attachFollower(follower));
+        leader.cancel();
+
+        // The follower is still waiting for the shared response.
+        assertFalse(leader.isCanceled());
+        assertFalse(follower.isCanceled());
+    }
+
+    public void testSharedRequestIsCanceledWithLastCaller() {
+        VolleyRequest<Item> leader = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+        VolleyRequest<Item> follower1 = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+        VolleyRequest<Item> follower2 = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+
+        assertTrue(leader.attachFollower(follower1));
+        assertTrue(leader.attachFollower(follower2));
+
+        follower1.cancel();
+        leader.cancel();
+        assertFalse(leader.isCanceled());
+
+        follower2.cancel();
+        assertTrue(leader.isCanceled());
+    }
+
+    public void testCanceledFollowerDoesNotCancelLeader() {
+        VolleyRequest<Item> leader = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+        VolleyRequest<Item> follower = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+
+        assertTrue(leader.attachFollower(follower));
+        follower.cancel();
+
+        assertTrue(follower.isCanceled());
+        assertFalse(leader.isCanceled());
+    }
+
+    public void testCanNotAttachFollowerToFinishedRequest() {
+        VolleyRequest<Item> leader = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+        leader.cancel();
+
+        VolleyRequest<Item> follower = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+        assertFalse(leader.attachFollower(follower));
+        assertFalse(follower.isCanceled());
+    }
+
+    public void testFinishListenerIsCalledExactlyOnce() {
+        final int[] calls = {0};
+        VolleyRequest<Item> leader = VolleyRequest.newRequest(null, Request.Method.GET, "https://test/item/1", null, Item.class);
+        leader.addFinishListener(new VolleyRequest.FinishListener() {
+            @Override
+            public void onFinished(VolleyRequest<?> request) {
+                calls[0]++;
+            }
+        });
+
+        leader.cancel();
+        leader.cancel();
+
+        assertEquals(1, calls[0]);
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.podio.sdk;
+
+/**
+ * This class represents a client side error caused by a request being failed without hitting the
+ * network, as the endpoint it targets has recently been failing repeatedly.
+ *
+ */
+public class CircuitOpenError extends PodioError {
+
+    public CircuitOpenError(String message) {
+        super(message);
+    }
+
+}
@@ -15,4 +15,8 @@ public interface Client {
 
     public <T> Request<T> request(Request.Method method, Filter filter, Object requestData, Class<T> classOfExpectedResult);
 
+    public <T> Request<T> request(Request.Method method, Filter filter, Object requestData, Class<T> classOfExpectedResult, Request.Priority priority);
+
+    public <T> Request<T> request(Request.Method method, Filter filter, Object requestData, Class<T> classOfExpectedResult, RequestOptions options);
+
 }
@@ -0,0 +1,237 @@
+package com.podio.sdk;
+
+import com.podio.sdk.internal.CallbackManager;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A request that doesn't perform any work on its own, but publishes an outcome derived from one or
+ * more source requests. The outcome is delivered on the thread that completes the request, which
+ * for all network requests is the main thread.
+ *
+ * @param <T>
+ *         The type of the result.
+ *
+ * @see Requests
+ */
+final class ComposedRequest<T> implements Request<T> {
+    private final CallbackManager<T> callbackManager;
+    private final ArrayList<Request<?>> sources;
+    private final Object lock;
+
+    private T result;
+    private PodioError error;
+    private boolean isDone;
+    private boolean isCanceled;
+    private Object tag;
+
+    ComposedRequest() {
+        this.callbackManager = new CallbackManager<T>();
+        this.sources = new ArrayList<Request<?>>();
+        this.lock = new Object();
+    }
+
+    @Override
+    public void cancel() {
+        ArrayList<Request<?>> sources;
+
+        synchronized (lock) {
+            if (isDone || isCanceled) {
+                return;
+            }
+
+            isCanceled = true;
+            sources = new ArrayList<Request<?>>(this.sources);
+            this.sources.clear();
+            lock.notifyAll();
+        }
+
+        callbackManager.clear();
+
+        for (Request<?> source : sources) {
+            source.cancel();
+        }
+    }
+
+    @Override
+    public T waitForResult(long maxSeconds) throws PodioError {
+        long timeout = TimeUnit.SECONDS.toMillis(Math.max(maxSeconds, 0));
+        long deadline = System.currentTimeMillis() + timeout;
+
+        synchronized (lock) {
+            try {
+                // Wait in a loop, as a thread may wake up without being notified. A zero timeout
+                // means waiting until the request is done.
+                while (!isDone && !isCanceled) {
+                    long remaining = timeout > 0 ? deadline - System.currentTimeMillis() : 0;
+
+                    if (timeout > 0 && remaining <= 0) {
+                        break;
+                    }
+
+                    lock.wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                throw new PodioError(e);
+            }
+
+            if (error != null) {
+                throw error;
+            }
+
+            return result;
+        }
+    }
+
+    @Override
+    public Request<T> withResultListener(ResultListener<T> resultListener) {
+        boolean isResultAvailable;
+        T result;
+
+        synchronized (lock) {
+            isResultAvailable = isDone && error == null;
+            result = this.result;
+        }
+
+        callbackManager.addResultListener(resultListener, isResultAvailable, result);
+        return this;
+    }
+
+    @Override
+    public Request<T> withErrorListener(ErrorListener errorListener) {
+        boolean isErrorAvailable;
+        PodioError error;
+
+        synchronized (lock) {
+            isErrorAvailable = isDone && this.error != null;
+            error = this.error;
+        }
+
+        callbackManager.addErrorListener(errorListener, isErrorAvailable, error);
+        return this;
+    }
+
+    /**
+     * Throws an {@link UnsupportedOperationException} as a composed request doesn't deal with
+     * sessions.
+     *
+     * @see com.podio.sdk.Request#withSessionListener(com.podio.sdk.Request.SessionListener)
+     */
+    @Override
+    public Request<T> withSessionListener(SessionListener sessionListener) {
+        throw new UnsupportedOperationException("Composed requests don't handle sessions.");
+    }
+
+    /**
+     * Tags this request along with all its source requests, including those that are yet to be
+     * issued.
+     *
+     * @see com.podio.sdk.Request#withTag(Object)
+     */
+    @Override
+    public Request<T> withTag(Object tag) {
+        ArrayList<Request<?>> sources;
+
+        synchronized (lock) {
+            this.tag = tag;
+            sources = new ArrayList<Request<?>>(this.sources);
+        }
+
+        for (Request<?> source : sources) {
+            source.withTag(tag);
+        }
+
+        return this;
+    }
+
+    /**
+     * Registers a request this request depends on. The source is canceled if this request is
+     * canceled, or fails, before the source has delivered.
+     *
+     * @param source
+     *         The request to depend on.
+     *
+     * @return Boolean true if the source was registered, boolean false if this request is already
+     * done, in which case the source is canceled.
+     */
+    boolean addSource(Request<?> source) {
+        boolean isAccepted;
+        Object tag;
+
+        synchronized (lock) {
+            isAccepted = !isDone && !isCanceled;
+            tag = this.tag;
+
+            if (isAccepted) {
+                sources.add(source);
+            }
+        }
+
+        if (!isAccepted) {
+            source.cancel();
+        } else if (tag != null) {
+            source.withTag(tag);
+        }
+
+        return isAccepted;
+    }
+
+    /**
+     * Completes this request with a result, unless it's already done or canceled.
+     *
+     * @param result
+     *         The result to deliver.
+     *
+     * @return Boolean true if the result was delivered, boolean false otherwise.
+     */
+    boolean complete(T result) {
+        synchronized (lock) {
+            if (isDone || isCanceled) {
+                return false;
+            }
+
+            this.isDone = true;
+            this.result = result;
+            this.sources.clear();
+            lock.notifyAll();
+        }
+
+        callbackManager.deliverResult(result);
+        return true;
+    }
+
+    /**
+     * Fails this request, unless it's already done or canceled. Any source requests that haven't
+     * delivered yet are canceled as their outcome no longer matters.
+     *
+     * @param cause
+     *         The cause of the failure.
+     *
+     * @return Boolean true if the error was delivered, boolean false otherwise.
+     */
+    boolean fail(Throwable cause) {
+        ArrayList<Request<?>> sources;
+        PodioError error = cause instanceof PodioError ? (PodioError) cause : new PodioError(cause);
+
+        synchronized (lock) {
+            if (isDone || isCanceled) {
+                return false;
+            }
+
+            this.isDone = true;
+            this.error = error;
+            sources = new ArrayList<Request<?>>(this.sources);
+            this.sources.clear();
+            lock.notifyAll();
+        }
+
+        for (Request<?> source : sources) {
+            source.cancel();
+        }
+
+        callbackManager.deliverError(error);
+        return true;
+    }
+
+}
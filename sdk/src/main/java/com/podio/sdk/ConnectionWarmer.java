@@ -0,0 +1,220 @@
+package com.podio.sdk;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpStack;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+
+import java.net.InetAddress;
+import java.util.Collections;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Prepares the connections to the Podio servers ahead of the first request. Each authority is
+ * resolved and then connected to through the same network stack (and SSL socket factory) the API
+ * requests are sent with. The connection is left in the connection pool of the stack and the TLS
+ * session in the session cache of the socket factory, so the first request neither waits for DNS
+ * nor a full handshake, and any further connection can resume the TLS session.
+ * <p/>
+ * The warm-up runs on the background pool of the {@link Dispatcher} and never fails loudly. Its
+ * outcome can be observed through a {@link Listener}.
+ */
+public final class ConnectionWarmer {
+
+    private static final int WARM_UP_TIMEOUT_MS = 5000;
+
+    /**
+     * Describes the outcome of warming up the connection to one authority.
+     */
+    public static final class Result {
+        private final String authority;
+        private final long resolveTimeMillis;
+        private final long coldRequestTimeMillis;
+        private final long warmRequestTimeMillis;
+        private final Throwable error;
+
+        private Result(String authority, long resolveTimeMillis, long coldRequestTimeMillis, long warmRequestTimeMillis, Throwable error) {
+            this.authority = authority;
+            this.resolveTimeMillis = resolveTimeMillis;
+            this.coldRequestTimeMillis = coldRequestTimeMillis;
+            this.warmRequestTimeMillis = warmRequestTimeMillis;
+            this.error = error;
+        }
+
+        /**
+         * @return The authority the connection was warmed up to.
+         */
+        public String getAuthority() {
+            return authority;
+        }
+
+        /**
+         * @return The time, in milliseconds, it took to resolve the host name.
+         */
+        public long getResolveTimeMillis() {
+            return resolveTimeMillis;
+        }
+
+        /**
+         * @return The time, in milliseconds, of the first round trip, including the TCP connect
+         * and the TLS handshake.
+         */
+        public long getColdRequestTimeMillis() {
+            return coldRequestTimeMillis;
+        }
+
+        /**
+         * @return The time, in milliseconds, of a round trip over the warmed up connection.
+         */
+        public long getWarmRequestTimeMillis() {
+            return warmRequestTimeMillis;
+        }
+
+        /**
+         * @return An estimate of the time, in milliseconds, the first request saves by not having
+         * to resolve, connect and handshake, or zero if the warm-up failed.
+         */
+        public long getSavedTimeMillis() {
+            return isSuccess() ?
+                    Math.max(resolveTimeMillis + coldRequestTimeMillis - warmRequestTimeMillis, 0L) :
+                    0L;
+        }
+
+        /**
+         * @return The cause of a failed warm-up, or null if it succeeded.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * @return Boolean true if the connection was warmed up, boolean false otherwise.
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Receives the outcome of the warm-up, on the main thread.
+     */
+    public interface Listener {
+
+        /**
+         * Called once for each authority when its warm-up has finished.
+         *
+         * @param result
+         *         The outcome of the warm-up.
+         */
+        void onConnectionWarmed(Result result);
+    }
+
+    /**
+     * A cheap request the servers answer without doing any real work. The status code is of no
+     * interest, only the connection it leaves behind.
+     */
+    private static final class WarmUpRequest extends com.android.volley.Request<Void> {
+
+        private WarmUpRequest(String url) {
+            super(Method.HEAD, url, null);
+            setRetryPolicy(new DefaultRetryPolicy(WARM_UP_TIMEOUT_MS, 0, 0));
+            setShouldCache(false);
+        }
+
+        @Override
+        protected Response<Void> parseNetworkResponse(NetworkResponse response) {
+            return Response.success(null, null);
+        }
+
+        @Override
+        protected void deliverResponse(Void response) {
+        }
+    }
+
+    /**
+     * Warms up the connections to the given authorities in the background.
+     *
+     * @param scheme
+     *         The scheme of the authorities, typically "https".
+     * @param sslSocketFactory
+     *         The optional SSL socket factory the API requests are sent with.
+     * @param listener
+     *         The optional listener to notify of the outcome.
+     * @param authorities
+     *         The authorities to warm up connections to.
+     */
+    public static void warmUp(final String scheme, SSLSocketFactory sslSocketFactory, final Listener listener, final String... authorities) {
+        final HttpStack stack = Dispatcher.getHttpStack(sslSocketFactory);
+
+        Dispatcher.getBackgroundExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                for (String authority : authorities) {
+                    deliver(listener, warmUp(stack, scheme, authority));
+                }
+            }
+        });
+    }
+
+    private static Result warmUp(HttpStack stack, String scheme, String authority) {
+        long resolveTime = 0L;
+        long coldRequestTime = 0L;
+        long warmRequestTime = 0L;
+
+        try {
+            long start = SystemClock.elapsedRealtime();
+            // Populates the DNS cache of the platform. The authority may carry a port.
+            InetAddress.getAllByName(authority.split(":")[0]);
+            resolveTime = SystemClock.elapsedRealtime() - start;
+
+            String url = scheme + "://" + authority + "/";
+
+            start = SystemClock.elapsedRealtime();
+            perform(stack, url);
+            coldRequestTime = SystemClock.elapsedRealtime() - start;
+
+            start = SystemClock.elapsedRealtime();
+            perform(stack, url);
+            warmRequestTime = SystemClock.elapsedRealtime() - start;
+
+            return new Result(authority, resolveTime, coldRequestTime, warmRequestTime, null);
+        } catch (Exception e) {
+            return new Result(authority, resolveTime, coldRequestTime, warmRequestTime, e);
+        }
+    }
+
+    private static void perform(HttpStack stack, String url) throws Exception {
+        HttpResponse response = stack.performRequest(new WarmUpRequest(url), Collections.<String, String>emptyMap());
+        HttpEntity entity = response.getEntity();
+
+        // Hands the connection back to the pool.
+        if (entity != null) {
+            entity.consumeContent();
+        }
+    }
+
+    private static void deliver(final Listener listener, final Result result) {
+        if (listener == null) {
+            return;
+        }
+
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onConnectionWarmed(result);
+            }
+        });
+    }
+
+    private ConnectionWarmer() {
+    }
+
+}
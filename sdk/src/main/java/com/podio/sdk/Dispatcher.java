@@ -0,0 +1,280 @@
+package com.podio.sdk;
+
+import android.content.Context;
+
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.HttpStack;
+import com.android.volley.toolbox.HurlStack;
+import com.podio.sdk.volley.MeteredHttpStack;
+import com.podio.sdk.volley.OkHttpStack;
+import com.podio.sdk.volley.TrafficRecorder;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Owns the threads of the SDK. All network traffic, API calls, session refreshes and images alike,
+ * shares a single Volley request queue, and all other background work, local store operations,
+ * file uploads and local image decoding, shares a single bounded thread pool. Session refreshes
+ * are served before any other network traffic, and the API client never occupies all network
+ * threads with normal priority requests, leaving room for images.
+ * <p/>
+ * The thread budget can be tuned with {@link #setThreadBudget(int, int)}, and the network stack
+ * chosen with {@link #setTransport(Transport)}. Both must be called before {@link
+ * Podio#setup(Context, String, String)} to have any effect.
+ */
+public final class Dispatcher {
+
+    /**
+     * The network stacks the requests can be sent with.
+     */
+    public enum Transport {
+        /**
+         * The platform's HttpURLConnection, one connection per concurrent request.
+         */
+        URL_CONNECTION,
+
+        /**
+         * OkHttp, multiplexing concurrent requests over pooled HTTP/2 connections where the
+         * server and platform support it.
+         *
+         * @see OkHttpStack
+         */
+        HTTP2
+    }
+
+    /**
+     * The default number of threads performing network requests.
+     */
+    public static final int DEFAULT_NETWORK_THREADS = 4;
+
+    /**
+     * The default number of threads performing other background work.
+     */
+    public static final int DEFAULT_BACKGROUND_THREADS = 2;
+
+    private static final String VOLLEY_CACHE_DIRECTORY = "volley";
+    private static final long BACKGROUND_THREAD_KEEP_ALIVE_SECONDS = 30L;
+
+    private static final Object LOCK = new Object();
+
+    // Requests using different SSL socket factories can't share a network stack. Usually all
+    // subsystems use the same (if any) socket factory though, and hence share a single queue.
+    private static final HashMap<SSLSocketFactory, RequestQueue> REQUEST_QUEUES = new HashMap<SSLSocketFactory, RequestQueue>();
+    private static final HashMap<SSLSocketFactory, HttpStack> HTTP_STACKS = new HashMap<SSLSocketFactory, HttpStack>();
+
+    private static Transport transport = Transport.URL_CONNECTION;
+    private static TrafficRecorder trafficRecorder;
+
+    private static int networkThreads = DEFAULT_NETWORK_THREADS;
+    private static int backgroundThreads = DEFAULT_BACKGROUND_THREADS;
+    private static ThreadPoolExecutor backgroundExecutor;
+
+    /**
+     * Sets the number of threads the SDK may use. Calling this method after the SDK has been set
+     * up has no effect.
+     *
+     * @param networkThreads
+     *         The number of threads performing network requests, at least one.
+     * @param backgroundThreads
+     *         The number of threads performing other background work, at least one.
+     */
+    public static void setThreadBudget(int networkThreads, int backgroundThreads) {
+        synchronized (LOCK) {
+            Dispatcher.networkThreads = Math.max(networkThreads, 1);
+            Dispatcher.backgroundThreads = Math.max(backgroundThreads, 1);
+        }
+    }
+
+    /**
+     * Sets the network stack the requests are sent with. Calling this method after the SDK has
+     * been set up has no effect.
+     *
+     * @param transport
+     *         The network stack to use.
+     */
+    public static void setTransport(Transport transport) {
+        synchronized (LOCK) {
+            Dispatcher.transport = transport != null ? transport : Transport.URL_CONNECTION;
+        }
+    }
+
+    /**
+     * Records all network traffic, API calls and images alike, with the given recorder. Calling
+     * this method after the SDK has been set up has no effect.
+     *
+     * @param trafficRecorder
+     *         The recorder to use, or null to not record any traffic.
+     */
+    public static void setTrafficRecorder(TrafficRecorder trafficRecorder) {
+        synchronized (LOCK) {
+            Dispatcher.trafficRecorder = trafficRecorder;
+        }
+    }
+
+    /**
+     * @return The number of threads performing network requests.
+     */
+    public static int getNetworkThreads() {
+        synchronized (LOCK) {
+            return networkThreads;
+        }
+    }
+
+    /**
+     * Returns the shared network request queue, creating and starting it if needed.
+     *
+     * @param context
+     *         Any context within the application, used to locate the cache directory.
+     * @param sslSocketFactory
+     *         The optional SSL socket factory the requests are to be sent with.
+     *
+     * @return The request queue.
+     */
+    public static RequestQueue getRequestQueue(Context context, SSLSocketFactory sslSocketFactory) {
+        synchronized (LOCK) {
+            RequestQueue requestQueue = REQUEST_QUEUES.get(sslSocketFactory);
+
+            if (requestQueue == null) {
+                File cacheDirectory = new File(context.getCacheDir(), VOLLEY_CACHE_DIRECTORY);
+                HttpStack stack = getHttpStack(sslSocketFactory);
+
+                requestQueue = new RequestQueue(new DiskBasedCache(cacheDirectory), new BasicNetwork(stack), networkThreads);
+                requestQueue.start();
+                REQUEST_QUEUES.put(sslSocketFactory, requestQueue);
+            }
+
+            return requestQueue;
+        }
+    }
+
+    /**
+     * Returns the shared network stack of the configured transport, creating it if needed. Clients
+     * performing requests outside the request queue should use this stack, so they share the
+     * pooled connections.
+     *
+     * @param sslSocketFactory
+     *         The optional SSL socket factory the requests are to be sent with.
+     *
+     * @return The network stack.
+     */
+    public static HttpStack getHttpStack(SSLSocketFactory sslSocketFactory) {
+        synchronized (LOCK) {
+            HttpStack stack = HTTP_STACKS.get(sslSocketFactory);
+
+            if (stack == null) {
+                if (transport == Transport.HTTP2) {
+                    stack = new OkHttpStack(sslSocketFactory);
+                } else {
+                    stack = sslSocketFactory != null ?
+                            new HurlStack(null, sslSocketFactory) :
+                            new HurlStack();
+                }
+
+                if (trafficRecorder != null) {
+                    stack = trafficRecorder.wrap(stack);
+                }
+
+                // Lets the requests tell their time to first byte from their download time.
+                stack = new MeteredHttpStack(stack);
+
+                HTTP_STACKS.put(sslSocketFactory, stack);
+            }
+
+            return stack;
+        }
+    }
+
+    /**
+     * Returns the shared pool for background work that isn't a network request. The pool threads
+     * are released when idle.
+     *
+     * @return The executor.
+     */
+    public static ExecutorService getBackgroundExecutor() {
+        synchronized (LOCK) {
+            if (backgroundExecutor == null) {
+                backgroundExecutor = new ThreadPoolExecutor(backgroundThreads, backgroundThreads,
+                        BACKGROUND_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new BackgroundThreadFactory());
+                backgroundExecutor.allowCoreThreadTimeOut(true);
+            }
+
+            return backgroundExecutor;
+        }
+    }
+
+    /**
+     * Creates an executor that runs its tasks one at a time, in the order they are submitted, on
+     * the shared background pool. It doesn't own any threads of its own.
+     *
+     * @return A new serial executor.
+     */
+    public static Executor newSerialExecutor() {
+        return new SerialExecutor(getBackgroundExecutor());
+    }
+
+    private static final class SerialExecutor implements Executor {
+        private final Executor executor;
+        private final ArrayDeque<Runnable> tasks;
+        private Runnable active;
+
+        private SerialExecutor(Executor executor) {
+            this.executor = executor;
+            this.tasks = new ArrayDeque<Runnable>();
+        }
+
+        @Override
+        public synchronized void execute(final Runnable task) {
+            tasks.offer(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        scheduleNext();
+                    }
+                }
+            });
+
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            active = tasks.poll();
+
+            if (active != null) {
+                executor.execute(active);
+            }
+        }
+    }
+
+    private static final class BackgroundThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "podio-background-" + count.getAndIncrement());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+
+    private Dispatcher() {
+    }
+
+}
@@ -6,22 +6,27 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.AsyncTask;
+import android.os.SystemClock;
 import android.util.DisplayMetrics;
 import android.util.LruCache;
+import android.widget.ImageView;
 
+import com.android.volley.AuthFailureError;
 import com.android.volley.Cache;
 import com.android.volley.NetworkResponse;
 import com.android.volley.NoConnectionError;
 import com.android.volley.RequestQueue;
+import com.android.volley.Response;
 import com.android.volley.TimeoutError;
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.HttpHeaderParser;
-import com.android.volley.toolbox.HurlStack;
-import com.android.volley.toolbox.Volley;
+import com.android.volley.toolbox.ImageRequest;
 import com.podio.sdk.internal.Utils;
+import com.podio.sdk.volley.MeteredHttpStack;
 
 import java.io.UnsupportedEncodingException;
 import java.net.UnknownHostException;
+import java.util.Map;
 
 import javax.net.ssl.SSLSocketFactory;
 
@@ -126,7 +131,92 @@ public class ImageLoader {
     }
 
     /**
-     * The shared Volley request queue on which the images will be downloaded.
+     * An image request that reports its measurements once it's delivered.
+     */
+    private static class MeteredImageRequest extends ImageRequest implements MeteredHttpStack.Observer {
+        private final long createdAt;
+        private volatile long sentAt;
+        private volatile long headersAt;
+        private volatile long parseStartedAt;
+        private volatile long parsedAt;
+        private volatile int statusCode;
+        private volatile long bytesReceived;
+
+        MeteredImageRequest(String url, Response.Listener<Bitmap> listener, int maxWidth, int maxHeight,
+                            ImageView.ScaleType scaleType, Bitmap.Config config, Response.ErrorListener errorListener) {
+
+            super(url, listener, maxWidth, maxHeight, scaleType, config, errorListener);
+            this.createdAt = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public Map<String, String> getHeaders() throws AuthFailureError {
+            // The headers are fetched right before the request hits the network.
+            sentAt = SystemClock.elapsedRealtime();
+            return super.getHeaders();
+        }
+
+        @Override
+        public void onHeadersReceived() {
+            headersAt = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void deliverError(VolleyError error) {
+            report(false);
+            super.deliverError(error);
+        }
+
+        @Override
+        protected VolleyError parseNetworkError(VolleyError volleyError) {
+            onParseStarted(volleyError.networkResponse);
+            parsedAt = parseStartedAt;
+            return super.parseNetworkError(volleyError);
+        }
+
+        @Override
+        protected Response<Bitmap> parseNetworkResponse(NetworkResponse response) {
+            onParseStarted(response);
+
+            try {
+                return super.parseNetworkResponse(response);
+            } finally {
+                parsedAt = SystemClock.elapsedRealtime();
+            }
+        }
+
+        @Override
+        protected void deliverResponse(Bitmap response) {
+            report(true);
+            super.deliverResponse(response);
+        }
+
+        private void onParseStarted(NetworkResponse response) {
+            parseStartedAt = SystemClock.elapsedRealtime();
+
+            if (response != null) {
+                statusCode = response.statusCode;
+                bytesReceived = response.data != null ? response.data.length : 0L;
+            }
+        }
+
+        private void report(boolean isSuccess) {
+            Metrics.report(new RequestMetrics.Builder(RequestMetrics.Source.IMAGE, Request.Method.GET.name(), RequestMetrics.toEndpointTemplate(getUrl()))
+                    .withStatusCode(statusCode)
+                    .withBytesReceived(bytesReceived)
+                    .withSuccess(isSuccess)
+                    .withPhase(RequestMetrics.Phase.QUEUE, createdAt, sentAt)
+                    .withPhase(RequestMetrics.Phase.FIRST_BYTE, sentAt, headersAt)
+                    .withPhase(RequestMetrics.Phase.DOWNLOAD, headersAt, parseStartedAt)
+                    .withPhase(RequestMetrics.Phase.PARSE, parseStartedAt, parsedAt)
+                    .withPhase(RequestMetrics.Phase.DELIVERY, parsedAt, SystemClock.elapsedRealtime())
+                    .build());
+        }
+    }
+
+    /**
+     * The shared Volley request queue on which the images will be downloaded. The queue is shared
+     * with the API traffic.
      */
     private static RequestQueue volleyImageRequestQueue;
 
@@ -233,19 +323,16 @@ public class ImageLoader {
      *         An optional SSL socket factory to use for the network requests.
      */
     public synchronized void setup(Context context, SSLSocketFactory sslSocketFactory) {
-        // Ensure the expected request queues exists.
+        // Ensure the expected request queue exists.
         if (volleyImageRequestQueue == null) {
-            volleyImageRequestQueue = (sslSocketFactory != null) ?
-                    Volley.newRequestQueue(context, new HurlStack(null, sslSocketFactory)) :
-                    Volley.newRequestQueue(context);
-            volleyImageRequestQueue.start();
+            volleyImageRequestQueue = Dispatcher.getRequestQueue(context, sslSocketFactory);
         }
 
-        // Clear out any and all queued requests.
+        // Clear out any and all queued image requests, leaving any API requests be.
         volleyImageRequestQueue.cancelAll(new RequestQueue.RequestFilter() {
             @Override
             public boolean apply(com.android.volley.Request<?> request) {
-                return true;
+                return request instanceof ImageRequest;
             }
         });
 
@@ -268,7 +355,25 @@ public class ImageLoader {
         imageCache.evictAll();
 
         if (imageLoader == null) {
-            imageLoader = new com.android.volley.toolbox.ImageLoader(volleyImageRequestQueue, imageCache);
+            imageLoader = new com.android.volley.toolbox.ImageLoader(volleyImageRequestQueue, imageCache) {
+                @Override
+                protected com.android.volley.Request<Bitmap> makeImageRequest(String requestUrl, int maxWidth, int maxHeight,
+                                                                              ImageView.ScaleType scaleType, final String cacheKey) {
+
+                    // Same as the default implementation, but measured.
+                    return new MeteredImageRequest(requestUrl, new Response.Listener<Bitmap>() {
+                        @Override
+                        public void onResponse(Bitmap response) {
+                            onGetImageSuccess(cacheKey, response);
+                        }
+                    }, maxWidth, maxHeight, scaleType, Bitmap.Config.RGB_565, new Response.ErrorListener() {
+                        @Override
+                        public void onErrorResponse(VolleyError error) {
+                            onGetImageError(cacheKey, error);
+                        }
+                    });
+                }
+            };
         }
     }
 
@@ -342,7 +447,7 @@ public class ImageLoader {
                     listener.onImageReady(bitmap, path, false);
                 }
             }
-        }.execute();
+        }.executeOnExecutor(Dispatcher.getBackgroundExecutor());
     }
 
     /**
@@ -389,7 +494,7 @@ public class ImageLoader {
                     listener.onImageReady(bitmap, Integer.toString(id), false);
                 }
             }
-        }.execute();
+        }.executeOnExecutor(Dispatcher.getBackgroundExecutor());
     }
 
     /**
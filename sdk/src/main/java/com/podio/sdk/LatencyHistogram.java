@@ -0,0 +1,144 @@
+package com.podio.sdk;
+
+/**
+ * Counts request latencies in exponentially growing buckets, each 25% wider than the one before,
+ * from one millisecond up to two minutes. Percentiles are read off the bucket bounds, so they're
+ * accurate to within a bucket (25%) while the histogram stays the same small size however many
+ * requests it has seen.
+ */
+public final class LatencyHistogram {
+
+    private static final long[] UPPER_BOUNDS;
+
+    static {
+        long maxMillis = 120000L;
+        int count = 1;
+        double bound = 1.0d;
+
+        while (bound < maxMillis) {
+            bound *= 1.25d;
+            count++;
+        }
+
+        UPPER_BOUNDS = new long[count];
+        bound = 1.0d;
+
+        for (int i = 0; i < count; i++) {
+            UPPER_BOUNDS[i] = (long) Math.ceil(bound);
+            bound *= 1.25d;
+        }
+    }
+
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    public LatencyHistogram() {
+        this.counts = new long[UPPER_BOUNDS.length + 1];
+        this.min = Long.MAX_VALUE;
+        this.max = 0L;
+    }
+
+    private LatencyHistogram(LatencyHistogram source) {
+        synchronized (source) {
+            this.counts = source.counts.clone();
+            this.count = source.count;
+            this.sum = source.sum;
+            this.min = source.min;
+            this.max = source.max;
+        }
+    }
+
+    /**
+     * @param millis
+     *         A latency to record, in milliseconds.
+     */
+    public synchronized void record(long millis) {
+        long value = Math.max(millis, 0L);
+        int index = 0;
+
+        while (index < UPPER_BOUNDS.length && value > UPPER_BOUNDS[index]) {
+            index++;
+        }
+
+        counts[index]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @return A copy of this histogram, which is safe to read while this one keeps recording.
+     */
+    public LatencyHistogram snapshot() {
+        return new LatencyHistogram(this);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The smallest recorded latency, or zero if nothing has been recorded.
+     */
+    public synchronized long getMin() {
+        return count > 0L ? min : 0L;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * @return The mean of the recorded latencies, or zero if nothing has been recorded.
+     */
+    public synchronized long getMean() {
+        return count > 0L ? sum / count : 0L;
+    }
+
+    /**
+     * @param percentile
+     *         The percentile to get, between zero and one hundred.
+     *
+     * @return The upper bound of the bucket holding the given percentile of the recorded
+     * latencies, never more than the largest recorded latency, or zero if nothing has been
+     * recorded.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0L) {
+            return 0L;
+        }
+
+        double clamped = Math.min(Math.max(percentile, 0.0d), 100.0d);
+        long rank = Math.max((long) Math.ceil(clamped * count / 100.0d), 1L);
+        long seen = 0L;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                return i < UPPER_BOUNDS.length ? Math.min(UPPER_BOUNDS[i], max) : max;
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * @return A single line summary of the recorded latencies, e.g. for logging.
+     */
+    @Override
+    public synchronized String toString() {
+        return "count=" + count +
+                " min=" + getMin() + "ms" +
+                " mean=" + getMean() + "ms" +
+                " p50=" + getPercentile(50) + "ms" +
+                " p90=" + getPercentile(90) + "ms" +
+                " p99=" + getPercentile(99) + "ms" +
+                " max=" + max + "ms";
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.podio.sdk;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the {@link RequestMetrics} of all requests performed by the SDK. Each event is added to
+ * the latency histogram of its endpoint and then handed to the registered listeners, on the main
+ * thread.
+ */
+public final class Metrics {
+
+    private static final CopyOnWriteArrayList<RequestMetrics.Listener> LISTENERS = new CopyOnWriteArrayList<RequestMetrics.Listener>();
+    private static final HashMap<String, LatencyHistogram> HISTOGRAMS = new HashMap<String, LatencyHistogram>();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private Metrics() {
+        // Hiding the constructor.
+    }
+
+    public static RequestMetrics.Listener addListener(RequestMetrics.Listener listener) {
+        return listener != null && LISTENERS.addIfAbsent(listener) ? listener : null;
+    }
+
+    public static RequestMetrics.Listener removeListener(RequestMetrics.Listener listener) {
+        return LISTENERS.remove(listener) ? listener : null;
+    }
+
+    /**
+     * Records the given event and hands it to the listeners. This method may be called on any
+     * thread.
+     *
+     * @param metrics
+     *         The measurements of a finished request.
+     */
+    public static void report(final RequestMetrics metrics) {
+        if (metrics == null) {
+            return;
+        }
+
+        String key = metrics.getHistogramKey();
+        LatencyHistogram histogram;
+
+        synchronized (HISTOGRAMS) {
+            histogram = HISTOGRAMS.get(key);
+
+            if (histogram == null) {
+                histogram = new LatencyHistogram();
+                HISTOGRAMS.put(key, histogram);
+            }
+        }
+
+        histogram.record(metrics.getTotalDuration());
+
+        if (LISTENERS.isEmpty()) {
+            return;
+        }
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            notifyListeners(metrics);
+        } else {
+            MAIN_HANDLER.post(new Runnable() {
+                @Override
+                public void run() {
+                    notifyListeners(metrics);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return Snapshots of the latency histograms, keyed on method and endpoint template, e.g.
+     * "GET /item/{id}".
+     */
+    public static Map<String, LatencyHistogram> getHistograms() {
+        HashMap<String, LatencyHistogram> snapshot = new HashMap<String, LatencyHistogram>();
+
+        synchronized (HISTOGRAMS) {
+            for (Map.Entry<String, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+                snapshot.put(entry.getKey(), entry.getValue().snapshot());
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Discards all recorded latencies, e.g. after they have been reported.
+     */
+    public static void clearHistograms() {
+        synchronized (HISTOGRAMS) {
+            HISTOGRAMS.clear();
+        }
+    }
+
+    private static void notifyListeners(RequestMetrics metrics) {
+        for (RequestMetrics.Listener listener : LISTENERS) {
+            listener.onRequestMeasured(metrics);
+        }
+    }
+
+}
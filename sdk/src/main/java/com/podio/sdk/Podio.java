@@ -30,9 +30,15 @@ import com.podio.sdk.provider.StreamProvider;
 import com.podio.sdk.provider.TaskProvider;
 import com.podio.sdk.provider.UserProvider;
 import com.podio.sdk.provider.ViewProvider;
+import com.podio.sdk.volley.CircuitBreaker;
+import com.podio.sdk.volley.ExponentialBackoffRetryStrategy;
+import com.podio.sdk.volley.RetryStrategy;
+import com.podio.sdk.volley.SynchronousVolleyClient;
 import com.podio.sdk.volley.VolleyClient;
 import com.podio.sdk.volley.VolleyRequest;
 
+import java.util.Map;
+
 import javax.net.ssl.SSLSocketFactory;
 
 /**
@@ -47,6 +53,16 @@ public class Podio {
 
     protected static AndroidAsyncHttpClient androidAsyncHttpRestClient = new AndroidAsyncHttpClient();
 
+    /**
+     * The request client for background jobs, performing its requests on the calling thread.
+     */
+    protected static SynchronousVolleyClient synchronousRestClient = new SynchronousVolleyClient();
+
+    /**
+     * The rate limit budget shared by all request clients.
+     */
+    protected static RateLimiter rateLimiter = new RateLimiter();
+
     /**
      * Enables means of easy operating on the Application API end point.
      */
@@ -161,6 +177,9 @@ public class Podio {
      */
     public static final LinkedAccountProvider linkedAccount = new LinkedAccountProvider();
 
+    private static boolean isConnectionWarmUpEnabled = false;
+    private static ConnectionWarmer.Listener connectionWarmUpListener = null;
+
     /**
      * Enables means of registering global error listeners. These callback implementations apply to
      * <em>all</em> requests until explicitly removed and they are called <em>after</em> any custom
@@ -221,6 +240,135 @@ public class Podio {
         return VolleyRequest.removeGlobalSessionListener(sessionListener);
     }
 
+    /**
+     * Registers a global metrics listener. The listener is handed the measurements (the phase
+     * durations, status, sizes and retries) of <em>every</em> finished request: API requests,
+     * uploads, network images and local store operations alike. It's called on the main thread.
+     *
+     * @param metricsListener
+     *         The global listener to register.
+     *
+     * @return The registered listener on success, null otherwise.
+     */
+    public static RequestMetrics.Listener addGlobalMetricsListener(RequestMetrics.Listener metricsListener) {
+        return Metrics.addListener(metricsListener);
+    }
+
+    /**
+     * Unregisters a previously registered global metrics listener.
+     *
+     * @param metricsListener
+     *         The listener to unregister.
+     *
+     * @return The listener that has just been unregistered, or null if the listener couldn't be
+     * found.
+     */
+    public static RequestMetrics.Listener removeGlobalMetricsListener(RequestMetrics.Listener metricsListener) {
+        return Metrics.removeListener(metricsListener);
+    }
+
+    /**
+     * Returns the latency histograms of all endpoints requested so far, whether or not a metrics
+     * listener is registered, for percentile reporting.
+     *
+     * @return Snapshots of the histograms, keyed on method and endpoint template, e.g. "GET
+     * /item/{id}".
+     */
+    public static Map<String, LatencyHistogram> getLatencyHistograms() {
+        return Metrics.getHistograms();
+    }
+
+    /**
+     * Returns a client that performs its requests on the calling thread, for use by background
+     * jobs that already run on a worker thread. Bind a provider of your own to it:
+     * <p/>
+     * <pre>
+     * ItemProvider items = new ItemProvider();
+     * items.setClient(Podio.getSynchronousClient());
+     * Item item = items.get(itemId).waitForResult(0);
+     * </pre>
+     *
+     * @return The synchronous client. It must never be used on the main thread.
+     */
+    public static SynchronousVolleyClient getSynchronousClient() {
+        return synchronousRestClient;
+    }
+
+    /**
+     * Cancels all unfinished requests with the given tag. Typically called when the activity, or
+     * view model, the requests were issued on behalf of is destroyed. The canceled requests will
+     * not call any of their listeners.
+     *
+     * @param tag
+     *         The tag of the requests to cancel.
+     *
+     * @see Request#withTag(Object)
+     */
+    public static void cancelAll(Object tag) {
+        volleytRestClient.cancelAll(tag);
+        androidAsyncHttpRestClient.cancelAll(tag);
+    }
+
+    /**
+     * Sets the strategy deciding whether, and when, failed API requests are sent again.
+     *
+     * @param retryStrategy
+     *         The strategy to use, or null to never retry.
+     *
+     * @see ExponentialBackoffRetryStrategy
+     */
+    public static void setRetryStrategy(RetryStrategy retryStrategy) {
+        volleytRestClient.setRetryStrategy(retryStrategy);
+    }
+
+    /**
+     * Sets the rate limiter guarding all API requests and uploads. A rate limiter is in place by
+     * default, reading its budget from the rate limit headers of the API responses.
+     *
+     * @param rateLimiter
+     *         The rate limiter to use, or null to not limit the requests.
+     */
+    public static void setRateLimiter(RateLimiter rateLimiter) {
+        Podio.rateLimiter = rateLimiter;
+        volleytRestClient.setRateLimiter(rateLimiter);
+        androidAsyncHttpRestClient.setRateLimiter(rateLimiter);
+        synchronousRestClient.setRateLimiter(rateLimiter);
+    }
+
+    /**
+     * @return The rate limiter guarding all API requests and uploads, or null if there is none.
+     */
+    public static RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Returns the circuit breakers guarding the API endpoint families, for monitoring purposes.
+     *
+     * @return The circuit breakers keyed on endpoint family, e.g. "item" or "conversation".
+     */
+    public static Map<String, CircuitBreaker> getCircuitBreakers() {
+        return volleytRestClient.getCircuitBreakers();
+    }
+
+    /**
+     * Enables or disables warming up the connections to the Podio servers when the SDK is set up.
+     * The warm-up resolves, connects to and handshakes with the servers in the background, so the
+     * first request doesn't have to. This method must be called before {@link #setup(Context,
+     * String, String)} to have any effect.
+     *
+     * @param enabled
+     *         Whether to warm up the connections.
+     * @param listener
+     *         Optional listener to notify, for each server, of the outcome and the time saved.
+     *
+     * @see ConnectionWarmer
+     */
+    public static void setConnectionWarmUpEnabled(boolean enabled, ConnectionWarmer.Listener listener) {
+        isConnectionWarmUpEnabled = enabled;
+        connectionWarmUpListener = listener;
+    }
+
     /**
      * Initializes the Podio facade to it's default initial state.
      *
@@ -260,6 +408,11 @@ public class Podio {
     public static void setup(Context context, String scheme, String authority, String clientId, String clientSecret, String userAgent, SSLSocketFactory volleySslSocketFactory, cz.msebera.android.httpclient.conn.ssl.SSLSocketFactory androidAsyncHttpSslSocketFactory) {
         volleytRestClient.setup(context, scheme, authority, clientId, clientSecret, userAgent, volleySslSocketFactory);
         androidAsyncHttpRestClient.setup(context, scheme, authority, userAgent, androidAsyncHttpSslSocketFactory);
+        synchronousRestClient.setup(context, scheme, authority, clientId, clientSecret, userAgent, volleySslSocketFactory);
+        // All clients draw from the same rate limit budget.
+        setRateLimiter(rateLimiter);
+        // Keep the session fresh ahead of its expiry.
+        SessionManager.setup(context, volleytRestClient);
         // Providers relying on a rest client in order to operate properly.
         application.setClient(volleytRestClient);
         calendar.setClient(volleytRestClient);
@@ -284,6 +437,33 @@ public class Podio {
         linkedAccount.setClient(volleytRestClient);
         reminder.setClient(volleytRestClient);
         recurrence.setClient(volleytRestClient);
+
+        if (isConnectionWarmUpEnabled) {
+            // The push server is only known for the production API.
+            if (BuildConfig.API_AUTHORITY.equals(authority)) {
+                ConnectionWarmer.warmUp(scheme, volleySslSocketFactory, connectionWarmUpListener, authority, BuildConfig.PUSH_AUTHORITY);
+            } else {
+                ConnectionWarmer.warmUp(scheme, volleySslSocketFactory, connectionWarmUpListener, authority);
+            }
+        }
+    }
+
+    /**
+     * Initializes the Podio SDK with the given client credentials and network stack. This method
+     * MUST be called before any other request is made. The network stack can only be chosen the
+     * first time the SDK is set up during the lifetime of the process.
+     *
+     * @param transport
+     *         The network stack to send the API requests with. {@link Dispatcher.Transport#HTTP2}
+     *         multiplexes concurrent requests over a single connection, which saves a handshake
+     *         per request on high latency networks.
+     *
+     * @see Podio#setup(Context, String, String, String, String, String, SSLSocketFactory,
+     * cz.msebera.android.httpclient.conn.ssl.SSLSocketFactory)
+     */
+    public static void setup(Context context, String scheme, String authority, String clientId, String clientSecret, String userAgent, SSLSocketFactory volleySslSocketFactory, cz.msebera.android.httpclient.conn.ssl.SSLSocketFactory androidAsyncHttpSslSocketFactory, Dispatcher.Transport transport) {
+        Dispatcher.setTransport(transport);
+        setup(context, scheme, authority, clientId, clientSecret, userAgent, volleySslSocketFactory, androidAsyncHttpSslSocketFactory);
     }
 
     /**
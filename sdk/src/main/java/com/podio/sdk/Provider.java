@@ -35,4 +35,29 @@ public abstract class Provider {
         return client.request(Request.Method.PUT, filter, item, classOfItem);
     }
 
+    protected <T> Request<T> delete(Filter filter, Request.Priority priority) {
+        validateClient();
+        return client.request(Request.Method.DELETE, filter, null, null, priority);
+    }
+
+    protected <T> Request<T> get(Filter filter, Class<T> classOfResult, Request.Priority priority) {
+        validateClient();
+        return client.request(Request.Method.GET, filter, null, classOfResult, priority);
+    }
+
+    protected <T> Request<T> post(Filter filter, Object item, Class<T> classOfItem, Request.Priority priority) {
+        validateClient();
+        return client.request(Request.Method.POST, filter, item, classOfItem, priority);
+    }
+
+    protected <T> Request<T> put(Filter filter, Object item, Class<T> classOfItem, Request.Priority priority) {
+        validateClient();
+        return client.request(Request.Method.PUT, filter, item, classOfItem, priority);
+    }
+
+    protected <T> Request<T> get(Filter filter, Class<T> classOfResult, RequestOptions options) {
+        validateClient();
+        return client.request(Request.Method.GET, filter, null, classOfResult, options);
+    }
+
 }
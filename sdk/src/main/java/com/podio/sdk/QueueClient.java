@@ -1,25 +1,35 @@
-
 package com.podio.sdk;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 import java.util.concurrent.FutureTask;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 public abstract class QueueClient {
 
     /**
-     * The queue executor service that manages the request queue.
+     * The executor that runs the requests of this client, one at a time and in the order they're
+     * executed.
      */
-    private ExecutorService executorService;
+    private final Executor executor;
 
+    /**
+     * Creates a client that runs its requests on the shared background pool of the {@link
+     * Dispatcher}, one at a time, without owning any threads of its own.
+     */
+    protected QueueClient() {
+        executor = Dispatcher.newSerialExecutor();
+    }
+
+    /**
+     * @deprecated The requests of all clients share the background pool of the {@link Dispatcher}
+     * and the pool parameters are ignored. Use {@link #QueueClient()} instead.
+     */
+    @Deprecated
     protected QueueClient(int corePoolSize, int maxPoolSize, long waitTimeSeconds) {
-        executorService = new ThreadPoolExecutor(corePoolSize, maxPoolSize, waitTimeSeconds, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(Integer.MAX_VALUE));
+        this();
     }
 
     protected void execute(FutureTask<?> request) {
-        executorService.execute(request);
+        executor.execute(request);
     }
 
 }
@@ -0,0 +1,24 @@
+package com.podio.sdk;
+
+/**
+ * This class represents a client side error caused by a request being failed without hitting the
+ * network, as sending it would exceed the rate limit of the Podio API.
+ *
+ */
+public class RateLimitError extends PodioError {
+
+    private final long retryAfterMillis;
+
+    public RateLimitError(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * @return The time, in milliseconds, after which the request is expected to be accepted.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.podio.sdk;
+
+import android.os.SystemClock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket guarding the hourly rate limit of the Podio API. Each request takes a token from
+ * the bucket before it's sent, and the bucket refills at the rate of the limit. The budget is kept
+ * current with the rate limit headers of the API responses, so requests that would exceed the
+ * limit can be delayed, or rejected, before they waste any of it.
+ * <p/>
+ * A share of the bucket is reserved for interactive traffic. Background (prefetch priority)
+ * requests can't take the last tokens, so a bulk operation will never starve the requests the user
+ * is actually waiting for.
+ */
+public final class RateLimiter {
+
+    /**
+     * The hourly request limit assumed until the API tells otherwise.
+     */
+    public static final int DEFAULT_LIMIT = 5000;
+
+    /**
+     * The default share of the budget reserved for interactive requests.
+     */
+    public static final float DEFAULT_INTERACTIVE_SHARE = 0.2f;
+
+    /**
+     * The response header carrying the hourly request limit.
+     */
+    public static final String HEADER_LIMIT = "X-Rate-Limit-Limit";
+
+    /**
+     * The response header carrying the number of requests left within the current hour.
+     */
+    public static final String HEADER_REMAINING = "X-Rate-Limit-Remaining";
+
+    private static final long WINDOW_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final float interactiveShare;
+
+    private int limit;
+    private double tokens;
+    private long refilledAt;
+
+    public RateLimiter() {
+        this(DEFAULT_LIMIT, DEFAULT_INTERACTIVE_SHARE);
+    }
+
+    /**
+     * @param limit
+     *         The hourly request limit, until the API tells otherwise.
+     * @param interactiveShare
+     *         The share of the budget, between zero and one, that background requests can't use.
+     */
+    public RateLimiter(int limit, float interactiveShare) {
+        this.limit = Math.max(limit, 1);
+        this.interactiveShare = Math.min(Math.max(interactiveShare, 0.0f), 1.0f);
+        this.tokens = this.limit;
+        this.refilledAt = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Takes a token for a request of the given priority, if one is available.
+     *
+     * @param priority
+     *         The priority of the request. Prefetch requests are treated as background traffic.
+     *
+     * @return Zero if a token was taken and the request may be sent, otherwise the time in
+     * milliseconds after which a token is expected to be available.
+     */
+    public synchronized long acquire(Request.Priority priority) {
+        refill();
+        double floor = priority == Request.Priority.PREFETCH ? limit * interactiveShare : 0.0d;
+
+        if (tokens - 1.0d >= floor) {
+            tokens -= 1.0d;
+            return 0L;
+        }
+
+        double deficit = floor + 1.0d - tokens;
+        return Math.max((long) Math.ceil(deficit * WINDOW_MILLIS / limit), 1L);
+    }
+
+    /**
+     * Brings the budget in line with the rate limit headers of an API response. Responses
+     * without the headers leave the budget untouched.
+     *
+     * @param limitHeader
+     *         The value of the {@link #HEADER_LIMIT} header, or null.
+     * @param remainingHeader
+     *         The value of the {@link #HEADER_REMAINING} header, or null.
+     */
+    public synchronized void update(String limitHeader, String remainingHeader) {
+        int newLimit = parse(limitHeader);
+        int remaining = parse(remainingHeader);
+
+        if (newLimit > 0) {
+            limit = newLimit;
+        }
+
+        if (remaining >= 0) {
+            // The server is the authority on what's left, this also picks up the start of a new
+            // hour right away.
+            refilledAt = SystemClock.elapsedRealtime();
+            tokens = Math.min(remaining, limit);
+        }
+    }
+
+    /**
+     * Empties the bucket. Called when the API responds that the rate limit has been exceeded.
+     */
+    public synchronized void onRateLimited() {
+        refill();
+        tokens = 0.0d;
+    }
+
+    /**
+     * @return The hourly request limit.
+     */
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return The number of requests that can be sent right now.
+     */
+    public synchronized int getAvailableTokens() {
+        refill();
+        return (int) tokens;
+    }
+
+    private void refill() {
+        long now = SystemClock.elapsedRealtime();
+        tokens = Math.min(limit, tokens + (double) (now - refilledAt) * limit / WINDOW_MILLIS);
+        refilledAt = now;
+    }
+
+    private static int parse(String header) {
+        if (header == null) {
+            return -1;
+        }
+
+        try {
+            return Integer.parseInt(header.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+}
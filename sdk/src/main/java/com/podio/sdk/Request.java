@@ -7,6 +7,28 @@ public interface Request<T> {
         DELETE, GET, POST, PUT
     }
 
+    /**
+     * The urgency of a request. Requests with a higher priority are served before requests with a
+     * lower priority, and prefetch requests are held back for as long as there are more urgent
+     * requests to serve.
+     */
+    public static enum Priority {
+        /**
+         * For requests the user is actively waiting for, e.g. the item that was just tapped.
+         */
+        IMMEDIATE,
+
+        /**
+         * The default priority.
+         */
+        NORMAL,
+
+        /**
+         * For speculative background work, e.g. fetching the next page of a stream.
+         */
+        PREFETCH
+    }
+
     /**
      * Callback interface for error events.
      *
@@ -73,6 +95,14 @@ public interface Request<T> {
 
     }
 
+    /**
+     * Cancels this request. A request that hasn't been sent yet never will be, a response that has
+     * already arrived won't be parsed, and none of the listeners of this request will be called.
+     * The listeners are released right away. Canceling a request that has already delivered has
+     * no effect.
+     */
+    public void cancel();
+
     /**
      * Make sure to catch any thrown PodioError
      * @param maxSeconds
@@ -87,4 +117,18 @@ public interface Request<T> {
 
     public Request<T> withSessionListener(SessionListener sessionListener);
 
+    /**
+     * Tags this request, enabling it to be canceled along with all other requests sharing the same
+     * tag. The tag would typically be the activity, or view model, the request is issued on behalf
+     * of. Tags are compared by identity.
+     *
+     * @param tag
+     *         The tag of this request.
+     *
+     * @return This request, for chaining.
+     *
+     * @see Podio#cancelAll(Object)
+     */
+    public Request<T> withTag(Object tag);
+
 }
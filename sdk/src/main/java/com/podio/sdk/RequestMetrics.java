@@ -0,0 +1,314 @@
+package com.podio.sdk;
+
+import android.net.Uri;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Describes where the time of a single, finished, request went. An event is emitted for every
+ * API request, file upload, network image and local store operation to the listeners registered
+ * through {@link Podio#addGlobalMetricsListener(Listener)}.
+ * <p/>
+ * A phase that didn't take place, or couldn't be measured, has a duration of -1. Connecting to the
+ * server isn't exposed by the network stacks, so it's part of the time to first byte.
+ */
+public final class RequestMetrics {
+
+    /**
+     * Callback interface for measured requests. The callback is executed on the main thread.
+     */
+    public interface Listener {
+
+        /**
+         * @param metrics
+         *         The measurements of a finished request.
+         */
+        void onRequestMeasured(RequestMetrics metrics);
+
+    }
+
+    /**
+     * What kind of request was measured.
+     */
+    public enum Source {
+        API, UPLOAD, IMAGE, LOCAL_STORE
+    }
+
+    /**
+     * The consecutive phases of a request.
+     */
+    public enum Phase {
+        /**
+         * Waiting for a thread to execute the request on.
+         */
+        QUEUE,
+
+        /**
+         * Sending the request until the response headers arrived. This includes connecting, and
+         * the upload of any request body.
+         */
+        FIRST_BYTE,
+
+        /**
+         * Reading the response body. Responses that are parsed while they're downloaded have no
+         * separate download phase.
+         */
+        DOWNLOAD,
+
+        /**
+         * Parsing the JSON, or decoding the image, of the response.
+         */
+        PARSE,
+
+        /**
+         * Reading from, or writing to, the local store.
+         */
+        STORE,
+
+        /**
+         * Waiting for the main thread to deliver the result to the callbacks.
+         */
+        DELIVERY
+    }
+
+    /**
+     * Assembles a {@link RequestMetrics} event.
+     */
+    public static final class Builder {
+        private final Source source;
+        private final String method;
+        private final String endpoint;
+        private final long[] durations;
+
+        private int statusCode;
+        private long bytesSent;
+        private long bytesReceived;
+        private int retryCount;
+        private boolean isSuccess;
+
+        /**
+         * @param source
+         *         What kind of request was measured.
+         * @param method
+         *         The HTTP method, or the local store operation, of the request.
+         * @param endpoint
+         *         The endpoint template of the request, see {@link #toEndpointTemplate(String)}.
+         */
+        public Builder(Source source, String method, String endpoint) {
+            this.source = source;
+            this.method = method;
+            this.endpoint = endpoint;
+            this.durations = new long[Phase.values().length];
+            Arrays.fill(durations, -1L);
+        }
+
+        public Builder withStatusCode(int statusCode) {
+            this.statusCode = statusCode;
+            return this;
+        }
+
+        public Builder withBytesSent(long bytesSent) {
+            this.bytesSent = bytesSent;
+            return this;
+        }
+
+        public Builder withBytesReceived(long bytesReceived) {
+            this.bytesReceived = bytesReceived;
+            return this;
+        }
+
+        public Builder withRetryCount(int retryCount) {
+            this.retryCount = retryCount;
+            return this;
+        }
+
+        public Builder withSuccess(boolean isSuccess) {
+            this.isSuccess = isSuccess;
+            return this;
+        }
+
+        /**
+         * Sets the duration of a phase from its start and end, as given by {@link
+         * android.os.SystemClock#elapsedRealtime()}. The phase is left unmeasured unless both
+         * points in time are known.
+         *
+         * @param phase
+         *         The phase to set the duration of.
+         * @param startedAt
+         *         When the phase started, or zero if it didn't.
+         * @param endedAt
+         *         When the phase ended, or zero if it didn't.
+         *
+         * @return This builder, for chaining.
+         */
+        public Builder withPhase(Phase phase, long startedAt, long endedAt) {
+            if (startedAt > 0L && endedAt >= startedAt) {
+                durations[phase.ordinal()] = endedAt - startedAt;
+            }
+
+            return this;
+        }
+
+        public RequestMetrics build() {
+            return new RequestMetrics(this);
+        }
+    }
+
+    /**
+     * Reduces a url to the endpoint it targets, by dropping the scheme, the authority and the query
+     * and replacing all numeric path segments with "{id}", e.g. "https://api.podio.com/item/12?a=b"
+     * becomes "/item/{id}". Requests to the same endpoint thereby share their statistics.
+     *
+     * @param url
+     *         The url of the request.
+     *
+     * @return The endpoint template.
+     */
+    public static String toEndpointTemplate(String url) {
+        if (url == null) {
+            return "/";
+        }
+
+        List<String> segments = Uri.parse(url).getPathSegments();
+        StringBuilder builder = new StringBuilder();
+
+        for (String segment : segments) {
+            builder.append('/').append(isNumeric(segment) ? "{id}" : segment);
+        }
+
+        return builder.length() > 0 ? builder.toString() : "/";
+    }
+
+    private static boolean isNumeric(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private final Source source;
+    private final String method;
+    private final String endpoint;
+    private final int statusCode;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final int retryCount;
+    private final boolean isSuccess;
+    private final long[] durations;
+
+    private RequestMetrics(Builder builder) {
+        this.source = builder.source;
+        this.method = builder.method;
+        this.endpoint = builder.endpoint;
+        this.statusCode = builder.statusCode;
+        this.bytesSent = builder.bytesSent;
+        this.bytesReceived = builder.bytesReceived;
+        this.retryCount = builder.retryCount;
+        this.isSuccess = builder.isSuccess;
+        this.durations = builder.durations.clone();
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return The endpoint template of the request, e.g. "/item/{id}".
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return The HTTP status code of the response, or zero if there was no response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * @return The number of times the request was sent again, because it failed or had to wait
+     * for a session refresh.
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    public boolean isSuccess() {
+        return isSuccess;
+    }
+
+    /**
+     * @param phase
+     *         The phase to get the duration of.
+     *
+     * @return The duration of the phase in milliseconds, or -1 if it wasn't measured.
+     */
+    public long getDuration(Phase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * @return The sum of all measured phases, in milliseconds.
+     */
+    public long getTotalDuration() {
+        long total = 0L;
+
+        for (long duration : durations) {
+            if (duration > 0L) {
+                total += duration;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * @return The key the latency of this request is recorded under, e.g. "GET /item/{id}".
+     */
+    public String getHistogramKey() {
+        return method + " " + endpoint;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append(source).append(' ').append(getHistogramKey())
+                .append(" status=").append(statusCode)
+                .append(" sent=").append(bytesSent)
+                .append(" received=").append(bytesReceived)
+                .append(" retries=").append(retryCount);
+
+        for (Phase phase : Phase.values()) {
+            long duration = getDuration(phase);
+
+            if (duration >= 0L) {
+                builder.append(' ').append(phase.name().toLowerCase(Locale.US)).append('=').append(duration).append("ms");
+            }
+        }
+
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.podio.sdk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes how a single request is to be served: its priority, how long the caller is willing to
+ * wait for it, and whether a slow GET request may be hedged.
+ * <p/>
+ * A deadline bounds the whole request, any retries and time spent waiting for the rate limit
+ * included. The transport is never given more time than what is left of it, and a request that
+ * misses its deadline fails with a {@link NoResponseError}.
+ * <p/>
+ * A hedged request sends a second, identical, request if no response has arrived once the given
+ * percentile of the recent response times of the endpoint has passed. Whichever response arrives
+ * first is delivered and the other request is canceled. This trims the tail latency of reads at
+ * the cost of a few extra requests, hence only GET requests are ever hedged.
+ */
+public final class RequestOptions {
+
+    /**
+     * The percentile of the recent response times after which a request is hedged, unless
+     * otherwise specified.
+     */
+    public static final int DEFAULT_HEDGING_PERCENTILE = 95;
+
+    private Request.Priority priority;
+    private long deadlineMillis;
+    private int hedgingPercentile;
+
+    public RequestOptions() {
+        this.priority = Request.Priority.NORMAL;
+        this.deadlineMillis = 0L;
+        this.hedgingPercentile = 0;
+    }
+
+    /**
+     * @param priority
+     *         The priority to serve the request with, null is treated as normal priority.
+     *
+     * @return These options, for chaining.
+     */
+    public RequestOptions withPriority(Request.Priority priority) {
+        this.priority = priority != null ? priority : Request.Priority.NORMAL;
+        return this;
+    }
+
+    /**
+     * @param duration
+     *         How long, from the moment the request is issued, the caller is willing to wait for
+     *         the response. Zero, or less, means no deadline.
+     * @param unit
+     *         The unit of the duration.
+     *
+     * @return These options, for chaining.
+     */
+    public RequestOptions withDeadline(long duration, TimeUnit unit) {
+        this.deadlineMillis = duration > 0 ? Math.max(unit.toMillis(duration), 1L) : 0L;
+        return this;
+    }
+
+    /**
+     * Hedges the request after the {@link #DEFAULT_HEDGING_PERCENTILE} percentile of the recent
+     * response times.
+     *
+     * @return These options, for chaining.
+     */
+    public RequestOptions withHedging() {
+        return withHedging(DEFAULT_HEDGING_PERCENTILE);
+    }
+
+    /**
+     * @param percentile
+     *         The percentile, between 1 and 99, of the recent response times of the endpoint after
+     *         which the request is hedged. Zero disables hedging.
+     *
+     * @return These options, for chaining.
+     */
+    public RequestOptions withHedging(int percentile) {
+        this.hedgingPercentile = percentile > 0 ? Math.min(percentile, 99) : 0;
+        return this;
+    }
+
+    public Request.Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return The time, in milliseconds, the caller is willing to wait for the response, or zero
+     * if there is no deadline.
+     */
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    /**
+     * @return The percentile of the recent response times after which the request is hedged, or
+     * zero if the request isn't to be hedged.
+     */
+    public int getHedgingPercentile() {
+        return hedgingPercentile;
+    }
+
+}
@@ -0,0 +1,285 @@
+package com.podio.sdk;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Composes requests without blocking any threads. Instead of nesting result listeners, or waiting
+ * for one request before issuing the next, the caller describes how the outcomes relate, and gets
+ * a new request representing the combined outcome:
+ * <p/>
+ * <pre>
+ * Request&lt;List&lt;Object&gt;&gt; screen = Requests.allOf(
+ *         Podio.item.get(itemId),
+ *         Podio.application.get(appId));
+ * </pre>
+ * <p/>
+ * Independent requests are all in flight at the same time. A composed request fails as soon as
+ * any of its sources fails, in which case the remaining sources are canceled. Canceling a composed
+ * request cancels all its sources.
+ * <p/>
+ * The functions given to this class are called on the thread the source request delivers its
+ * result on, which for network requests is the main thread. Keep them light.
+ */
+public final class Requests {
+
+    /**
+     * Transforms a value into another value.
+     */
+    public interface Function<F, T> {
+
+        T apply(F input);
+
+    }
+
+    /**
+     * Transforms a value into a request for another value.
+     */
+    public interface RequestFunction<F, T> {
+
+        Request<T> apply(F input);
+
+    }
+
+    /**
+     * Combines two values into one.
+     */
+    public interface Combiner<A, B, T> {
+
+        T combine(A first, B second);
+
+    }
+
+    /**
+     * Transforms the result of a request.
+     *
+     * @param source
+     *         The request to transform the result of.
+     * @param function
+     *         The transformation.
+     *
+     * @return A request delivering the transformed result, or the error of the source request. If
+     * the transformation throws, the request fails with the thrown exception.
+     */
+    public static <F, T> Request<T> map(Request<F> source, final Function<? super F, ? extends T> function) {
+        final ComposedRequest<T> target = new ComposedRequest<T>();
+
+        listen(target, source, new Request.ResultListener<F>() {
+            @Override
+            public boolean onRequestPerformed(F content) {
+                T result;
+
+                try {
+                    result = function.apply(content);
+                } catch (RuntimeException e) {
+                    target.fail(e);
+                    return false;
+                }
+
+                target.complete(result);
+                return false;
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * Issues a dependent request once the source request has delivered, e.g. fetching the app of
+     * an item once the item is known.
+     *
+     * @param source
+     *         The request to wait for.
+     * @param function
+     *         Issues the dependent request given the result of the source request.
+     *
+     * @return A request delivering the result of the dependent request, or the error of either
+     * request.
+     */
+    public static <F, T> Request<T> flatMap(Request<F> source, final RequestFunction<? super F, T> function) {
+        final ComposedRequest<T> target = new ComposedRequest<T>();
+
+        listen(target, source, new Request.ResultListener<F>() {
+            @Override
+            public boolean onRequestPerformed(F content) {
+                Request<T> next;
+
+                try {
+                    next = function.apply(content);
+                } catch (RuntimeException e) {
+                    target.fail(e);
+                    return false;
+                }
+
+                if (next == null) {
+                    target.fail(new PodioError("The request function didn't issue a request"));
+                    return false;
+                }
+
+                listen(target, next, new Request.ResultListener<T>() {
+                    @Override
+                    public boolean onRequestPerformed(T content) {
+                        target.complete(content);
+                        return false;
+                    }
+                });
+
+                return false;
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * Combines the results of two requests that run in parallel.
+     *
+     * @param first
+     *         The first request.
+     * @param second
+     *         The second request.
+     * @param combiner
+     *         Combines the two results once both are delivered.
+     *
+     * @return A request delivering the combined result, or the first error of either request.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B, T> Request<T> zip(Request<A> first, Request<B> second, final Combiner<? super A, ? super B, ? extends T> combiner) {
+        List<Request<?>> sources = new ArrayList<Request<?>>(2);
+        sources.add(first);
+        sources.add(second);
+
+        return map(allOf(sources), new Function<List<Object>, T>() {
+            @Override
+            public T apply(List<Object> results) {
+                return combiner.combine((A) results.get(0), (B) results.get(1));
+            }
+        });
+    }
+
+    /**
+     * Waits for all given requests, which run in parallel, to deliver.
+     *
+     * @param requests
+     *         The requests to wait for.
+     *
+     * @return A request delivering the results in the same order as the given requests, or the
+     * first error of any of them.
+     */
+    public static Request<List<Object>> allOf(Request<?>... requests) {
+        return allOf(Arrays.asList(requests));
+    }
+
+    /**
+     * Waits for all given requests, which run in parallel, to deliver.
+     *
+     * @param requests
+     *         The requests to wait for.
+     *
+     * @return A request delivering the results in the same order as the given requests, or the
+     * first error of any of them.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Request<List<T>> allOf(List<? extends Request<? extends T>> requests) {
+        final ComposedRequest<List<T>> target = new ComposedRequest<List<T>>();
+        final int count = requests.size();
+
+        if (count == 0) {
+            target.complete(Collections.<T>emptyList());
+            return target;
+        }
+
+        final ArrayList<T> results = new ArrayList<T>(Collections.<T>nCopies(count, null));
+        final int[] remaining = {count};
+
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+
+            // The requests are only ever read from, hence the cast is safe.
+            listen(target, (Request<T>) requests.get(i), new Request.ResultListener<T>() {
+                @Override
+                public boolean onRequestPerformed(T content) {
+                    boolean isComplete;
+
+                    synchronized (results) {
+                        results.set(index, content);
+                        isComplete = --remaining[0] == 0;
+                    }
+
+                    if (isComplete) {
+                        target.complete(results);
+                    }
+
+                    return false;
+                }
+            });
+        }
+
+        return target;
+    }
+
+    /**
+     * Fails a request that hasn't delivered within the given time. The source request is canceled
+     * when the time runs out.
+     *
+     * @param source
+     *         The request to put a time limit on.
+     * @param duration
+     *         The time limit.
+     * @param unit
+     *         The unit of the time limit.
+     *
+     * @return A request delivering the result of the source request, or a {@link NoResponseError}
+     * if the time runs out.
+     */
+    public static <T> Request<T> timeout(Request<T> source, long duration, TimeUnit unit) {
+        final long millis = unit.toMillis(Math.max(duration, 0L));
+        final ComposedRequest<T> target = new ComposedRequest<T>();
+
+        listen(target, source, new Request.ResultListener<T>() {
+            @Override
+            public boolean onRequestPerformed(T content) {
+                target.complete(content);
+                return false;
+            }
+        });
+
+        new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                target.fail(new NoResponseError("No response within " + millis + " ms"));
+            }
+        }, millis);
+
+        return target;
+    }
+
+    /**
+     * Forwards the outcome of a source request to a composed request. The error of the source is
+     * always consumed, as it's published through the composed request instead.
+     */
+    private static <S> void listen(final ComposedRequest<?> target, Request<S> source, Request.ResultListener<S> resultListener) {
+        if (!target.addSource(source)) {
+            return;
+        }
+
+        source.withResultListener(resultListener)
+                .withErrorListener(new Request.ErrorListener() {
+                    @Override
+                    public boolean onErrorOccurred(Throwable cause) {
+                        target.fail(cause);
+                        return true;
+                    }
+                });
+    }
+
+    private Requests() {
+    }
+
+}
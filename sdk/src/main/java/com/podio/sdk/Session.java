@@ -53,6 +53,8 @@ public class Session {
             accessToken = refreshToken = null;
             expires = 0;
         }
+
+        SessionManager.onSessionChanged();
     }
 
     public static void set(String accessToken, String refreshToken, long expires) {
@@ -64,6 +66,8 @@ public class Session {
         Session.refreshToken = refreshToken;
         Session.transferToken = transferToken;
         Session.expires = expires;
+
+        SessionManager.onSessionChanged();
     }
 
     private Session() {
@@ -0,0 +1,218 @@
+package com.podio.sdk;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.podio.sdk.internal.Utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the current {@link Session} fresh by refreshing it ahead of its expiry, rather than
+ * waiting for a request to fail with a "401 Unauthorized" status. A refresh is scheduled whenever
+ * the session changes, and the session is re-evaluated each time an activity is resumed, as the
+ * scheduled refresh may not fire while the device is asleep.
+ * <p/>
+ * The refresh margin defines how long before the actual expiry the session is considered "about to
+ * expire" and is refreshed. The margin can be tuned with {@link #setRefreshMargin(long,
+ * TimeUnit)}.
+ */
+public final class SessionManager {
+
+    /**
+     * Performs the actual session refresh. Implementations are expected to ensure that concurrent
+     * calls share a single refresh request.
+     */
+    public interface Refresher {
+
+        void refreshSession();
+
+    }
+
+    /**
+     * The default number of milliseconds before the expiry of a session at which it is refreshed.
+     */
+    public static final long DEFAULT_REFRESH_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Object LOCK = new Object();
+
+    private static final Runnable REFRESH_TASK = new Runnable() {
+        @Override
+        public void run() {
+            refreshIfNeeded();
+        }
+    };
+
+    private static final Application.ActivityLifecycleCallbacks LIFECYCLE_CALLBACKS = new Application.ActivityLifecycleCallbacks() {
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+            // The app may have been asleep past the scheduled refresh. Refresh now, before the
+            // user gets to issue any requests.
+            refreshIfNeeded();
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+        }
+    };
+
+    private static long refreshMarginMillis = DEFAULT_REFRESH_MARGIN_MILLIS;
+    private static Refresher refresher;
+    private static Handler handler;
+    private static Application application;
+
+    /**
+     * Initializes the session manager. This is called by {@link Podio#setup(Context, String,
+     * String)} and there is usually no need for third party developers to call it explicitly.
+     *
+     * @param context
+     *         Any context within the application.
+     * @param refresher
+     *         The implementation that will perform the session refreshes.
+     */
+    public static void setup(Context context, Refresher refresher) {
+        synchronized (LOCK) {
+            SessionManager.refresher = refresher;
+
+            if (handler == null) {
+                handler = new Handler(Looper.getMainLooper());
+            }
+
+            Context applicationContext = context != null ? context.getApplicationContext() : null;
+
+            if (application == null && applicationContext instanceof Application) {
+                application = (Application) applicationContext;
+                application.registerActivityLifecycleCallbacks(LIFECYCLE_CALLBACKS);
+            }
+        }
+
+        schedule();
+    }
+
+    /**
+     * Sets how long before the expiry of a session it should be refreshed.
+     *
+     * @param duration
+     *         The margin. Negative values are treated as zero.
+     * @param unit
+     *         The unit of the given margin.
+     */
+    public static void setRefreshMargin(long duration, TimeUnit unit) {
+        synchronized (LOCK) {
+            refreshMarginMillis = unit.toMillis(Math.max(duration, 0L));
+        }
+
+        schedule();
+    }
+
+    /**
+     * @return The current refresh margin in milliseconds.
+     */
+    public static long getRefreshMarginMillis() {
+        synchronized (LOCK) {
+            return refreshMarginMillis;
+        }
+    }
+
+    /**
+     * @return Boolean true if the current session has a known expiry time and that time has
+     * passed, boolean false otherwise.
+     */
+    public static boolean isExpired() {
+        long expiresMillis = TimeUnit.SECONDS.toMillis(Session.expires());
+        return expiresMillis > 0L && System.currentTimeMillis() >= expiresMillis;
+    }
+
+    /**
+     * @return Boolean true if the current session has a known expiry time and that time is within
+     * the refresh margin, boolean false otherwise.
+     */
+    public static boolean isAboutToExpire() {
+        long expiresMillis = TimeUnit.SECONDS.toMillis(Session.expires());
+        return expiresMillis > 0L && System.currentTimeMillis() >= expiresMillis - getRefreshMarginMillis();
+    }
+
+    /**
+     * Refreshes the session if it's about to expire, otherwise makes sure a refresh is scheduled
+     * ahead of its expiry. Calling this method is cheap.
+     */
+    public static void refreshIfNeeded() {
+        if (isAboutToExpire()) {
+            refresh();
+        } else {
+            schedule();
+        }
+    }
+
+    /**
+     * Refreshes the session right away, provided there is a refresh token to refresh it with.
+     */
+    public static void refresh() {
+        Refresher refresher;
+
+        synchronized (LOCK) {
+            refresher = SessionManager.refresher;
+        }
+
+        if (refresher != null && Utils.notEmpty(Session.refreshToken())) {
+            refresher.refreshSession();
+        }
+    }
+
+    /**
+     * Called by {@link Session} whenever the session has changed.
+     */
+    static void onSessionChanged() {
+        schedule();
+    }
+
+    /**
+     * Schedules a refresh at the start of the refresh margin of the current session, replacing any
+     * previously scheduled refresh.
+     */
+    private static void schedule() {
+        synchronized (LOCK) {
+            if (handler == null) {
+                return;
+            }
+
+            handler.removeCallbacks(REFRESH_TASK);
+            long expiresMillis = TimeUnit.SECONDS.toMillis(Session.expires());
+
+            if (refresher == null || expiresMillis <= 0L || Utils.isEmpty(Session.refreshToken())) {
+                return;
+            }
+
+            long delay = expiresMillis - refreshMarginMillis - System.currentTimeMillis();
+            handler.postDelayed(REFRESH_TASK, Math.max(delay, 0L));
+        }
+    }
+
+    private SessionManager() {
+    }
+
+}
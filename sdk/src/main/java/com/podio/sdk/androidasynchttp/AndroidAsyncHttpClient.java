@@ -5,8 +5,11 @@ import android.content.Context;
 
 import com.loopj.android.http.AsyncHttpClient;
 import com.podio.sdk.Client;
+import com.podio.sdk.Dispatcher;
 import com.podio.sdk.Filter;
+import com.podio.sdk.RateLimiter;
 import com.podio.sdk.Request;
+import com.podio.sdk.RequestOptions;
 import com.podio.sdk.provider.FileProvider;
 
 import java.io.File;
@@ -20,6 +23,7 @@ public class AndroidAsyncHttpClient implements Client {
 
     private AsyncHttpClient client;
     private Context context;
+    private volatile RateLimiter rateLimiter;
 
     @Override
     public Request<Void> authenticateWithUserCredentials(String username, String password) {
@@ -47,6 +51,7 @@ public class AndroidAsyncHttpClient implements Client {
         if (filter instanceof FileProvider.FileFilter && method == Request.Method.POST && item instanceof File) {
             String url = filter.buildUri(scheme, authority).toString();
             AndroidAsyncHttpRequest<T> request = new AndroidAsyncHttpRequest<>(client, context, url, (File) item, classOfResult);
+            request.setRateLimiter(rateLimiter);
             request.performRequest();
 
             return request;
@@ -55,6 +60,43 @@ public class AndroidAsyncHttpClient implements Client {
         }
     }
 
+    @Override
+    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult, Request.Priority priority) {
+        // Uploads are always served in the order they are requested.
+        return request(method, filter, item, classOfResult);
+    }
+
+    @Override
+    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult, RequestOptions options) {
+        // Uploads are neither prioritized nor hedged, and may take as long as they take.
+        return request(method, filter, item, classOfResult);
+    }
+
+    /**
+     * Sets the rate limiter guarding the uploads of this client. Uploads count as interactive
+     * traffic.
+     *
+     * @param rateLimiter
+     *         The rate limiter, possibly shared with other clients, or null to not limit.
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Cancels all unfinished uploads with the given tag.
+     *
+     * @param tag
+     *         The tag of the uploads to cancel. Tags are compared by identity.
+     *
+     * @see Request#withTag(Object)
+     */
+    public synchronized void cancelAll(Object tag) {
+        if (client != null && tag != null) {
+            client.cancelRequestsByTAG(tag, true);
+        }
+    }
+
     public synchronized void setup(Context context, String scheme, String authority, String userAgent, SSLSocketFactory sslSocketFactory) {
         this.context = context;
         this.scheme = scheme;
@@ -62,6 +104,8 @@ public class AndroidAsyncHttpClient implements Client {
 
         client = new AsyncHttpClient();
         client.setTimeout(CLIENT_DEFAULT_TIMEOUT_MS);
+        // Uploads share the background threads with the rest of the SDK.
+        client.setThreadPool(Dispatcher.getBackgroundExecutor());
         if (userAgent != null) {
             client.setUserAgent(userAgent);
         }
@@ -2,20 +2,27 @@
 package com.podio.sdk.androidasynchttp;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 
 import com.google.gson.JsonSyntaxException;
 import com.loopj.android.http.AsyncHttpClient;
-import com.loopj.android.http.BaseJsonHttpResponseHandler;
+import com.loopj.android.http.RequestHandle;
 import com.loopj.android.http.RequestParams;
 import com.podio.sdk.ApiError;
 import com.podio.sdk.ConnectionError;
+import com.podio.sdk.Metrics;
 import com.podio.sdk.NoResponseError;
 import com.podio.sdk.Podio;
 import com.podio.sdk.PodioError;
+import com.podio.sdk.RateLimitError;
+import com.podio.sdk.RateLimiter;
 import com.podio.sdk.Request;
+import com.podio.sdk.RequestMetrics;
 import com.podio.sdk.Session;
+import com.podio.sdk.SessionManager;
 import com.podio.sdk.internal.CallbackManager;
-import com.podio.sdk.json.JsonParser;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -31,7 +38,12 @@ import cz.msebera.android.httpclient.message.BasicHeader;
 /**
  */
 public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionListener {
-    private long TEN_MINUTES = 600000;
+    // How long an upload may be held back for the rate limit before it's failed instead.
+    private static final long MAX_RATE_LIMIT_DELAY_MS = 5000L;
+
+    // The Podio API has historically signaled an exceeded rate limit with a 420 status.
+    private static final int HTTP_ENHANCE_YOUR_CALM = 420;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
 
     private AsyncHttpClient client;
     private Context context;
@@ -41,16 +53,42 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
     private CallbackManager<T> callbackManager;
 
     private T result;
-    private boolean isDone;
+    private volatile boolean isDone;
     private PodioError error;
     private boolean attemptedReauth;
 
+    private volatile boolean isCanceled;
+    private volatile Object tag;
+    private volatile RequestHandle requestHandle;
+    private RateLimiter rateLimiter;
+
+    // The phases of the last run of the upload.
+    private int runCount;
+    private long issuedAt;
+    private long headersAt;
+    private long parsedAt;
+    private int statusCode;
+    private long bytesReceived;
+
     @Override
-    public T waitForResult(long maxSeconds) throws PodioError {
+    public synchronized T waitForResult(long maxSeconds) throws PodioError {
         // This is still awkward as we might end up blocking the delivery of
         // a client side error (see
+        long timeout = TimeUnit.SECONDS.toMillis(Math.max(maxSeconds, 0));
+        long deadline = System.currentTimeMillis() + timeout;
+
         try {
-            wait(TimeUnit.SECONDS.toMillis(Math.max(maxSeconds, 0)));
+            // Wait in a loop, as a thread may wake up without being notified. A zero timeout
+            // means waiting until the request is done.
+            while (!isDone && !isCanceled) {
+                long remaining = timeout > 0 ? deadline - System.currentTimeMillis() : 0;
+
+                if (timeout > 0 && remaining <= 0) {
+                    break;
+                }
+
+                wait(remaining);
+            }
         } catch (InterruptedException e) {
             callbackManager.deliverError(e);
         }
@@ -71,7 +109,7 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
     @Override
     public Request<T> withErrorListener(ErrorListener errorListener) {
         callbackManager.addErrorListener(errorListener, isDone && error != null, error);
-        return null;
+        return this;
     }
 
     @Override
@@ -79,6 +117,34 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
         throw new UnsupportedOperationException("AndroidAsyncHttp does not support SessionListeners");
     }
 
+    @Override
+    public Request<T> withTag(Object tag) {
+        this.tag = tag;
+
+        RequestHandle requestHandle = this.requestHandle;
+        if (requestHandle != null) {
+            requestHandle.setTag(tag);
+        }
+
+        return this;
+    }
+
+    @Override
+    public void cancel() {
+        isCanceled = true;
+        callbackManager.clear();
+
+        synchronized (this) {
+            notifyAll();
+        }
+
+        RequestHandle requestHandle = this.requestHandle;
+        if (requestHandle != null) {
+            // Interrupts the upload, and any parsing of the response, if it's already running.
+            requestHandle.cancel(true);
+        }
+    }
+
     protected AndroidAsyncHttpRequest(AsyncHttpClient client, Context context, String url, File file, Class<T> resultType) {
         this.client = client;
         this.context = context;
@@ -89,10 +155,6 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
         this.attemptedReauth = false;
     }
 
-    private boolean isSessionAboutToExpire() {
-        return System.currentTimeMillis() > (Session.expires()*1000L - TEN_MINUTES);
-    }
-
     @Override
     public boolean onSessionChanged(String authToken, String refreshToken, String transferToken, long expires) {
         runRequest();
@@ -100,48 +162,92 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
         return false;
     }
 
+    /**
+     * Enables the upload to be held back while the rate limit budget is exhausted, and the rate
+     * limit headers of its response to update the budget.
+     *
+     * @param rateLimiter
+     *         The rate limiter guarding the upload, or null.
+     */
+    void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
     public void performRequest() {
-        if (isSessionAboutToExpire() && !attemptedReauth) {
-            attemptedReauth = true;
-            Podio.client.forceRefreshTokens().withSessionListener(this);
+        if (SessionManager.isExpired() && !attemptedReauth) {
+            // There is no point in uploading with an expired session, wait for a fresh one.
+            refreshAndRun();
+        } else {
+            if (SessionManager.isAboutToExpire()) {
+                SessionManager.refresh();
+            }
+
+            runRequest();
+        }
+    }
+
+    private void refreshAndRun() {
+        attemptedReauth = true;
+        Request<Void> refreshRequest = Podio.client.forceRefreshTokens();
+
+        if (refreshRequest != null) {
+            refreshRequest.withSessionListener(this);
         } else {
+            // The session can't be refreshed, let the server decide.
             runRequest();
         }
     }
 
     private void runRequest() {
+        if (isCanceled || !acquireRateLimit()) {
+            return;
+        }
+
+        runCount++;
+        issuedAt = SystemClock.elapsedRealtime();
+
         try {
             RequestParams params = new RequestParams();
             params.put("source", file);
             params.put("filename", file.getName());
-            client.post(context, url, getHeaders(), params, null
-                    , new BaseJsonHttpResponseHandler<T>() {
+            requestHandle = client.post(context, url, getHeaders(), params, null, new JsonStreamResponseHandler<T>(classOfResult) {
 
                 @Override
-                protected T parseResponse(String rawJsonData, boolean isFailure) throws Throwable {
-                    T result;
-                    if (isFailure || classOfResult == null || classOfResult == Void.class) {
-                        result = null;
-                    } else {
-                        result = JsonParser.fromJson(rawJsonData, classOfResult);
-                    }
-                    return result;
+                public void onCancel() {
+                    // The upload may have been canceled by tag through the client.
+                    AndroidAsyncHttpRequest.this.cancel();
                 }
 
                 @Override
-                public void onSuccess(int statusCode, Header[] headers, String rawJsonResponse, T response) {
+                protected void onResult(int statusCode, Header[] headers, T response) {
+                    updateRateLimit(statusCode, headers);
+                    measure(statusCode, this);
+
+                    if (isCanceled) {
+                        return;
+                    }
+
                     result = response;
                     deliverResponse();
                 }
 
                 @Override
-                public void onFailure(int statusCode, Header[] headers, Throwable throwable, String rawJsonData, T errorResponse) {
+                protected void onError(int statusCode, Header[] headers, Throwable throwable, String rawJsonData) {
+                    updateRateLimit(statusCode, headers);
+                    measure(statusCode, this);
+
+                    if (isCanceled) {
+                        return;
+                    }
+
                     if (statusCode == HttpStatus.SC_UNAUTHORIZED && !attemptedReauth) {
-                        attemptedReauth = true;
-                        Podio.client.forceRefreshTokens().withSessionListener(AndroidAsyncHttpRequest.this);
+                        refreshAndRun();
                     } else {
                         if (throwable instanceof ConnectTimeoutException || throwable instanceof SocketTimeoutException) {
                             error = new NoResponseError(throwable);
+                        } else if (statusCode >= HttpStatus.SC_OK && statusCode < HttpStatus.SC_MULTIPLE_CHOICES) {
+                            // A successful response that we couldn't parse.
+                            error = new PodioError(throwable);
                         } else if (rawJsonData != null) {
                             try {
                                 error = new ApiError(rawJsonData, statusCode, throwable);
@@ -155,22 +261,128 @@ public class AndroidAsyncHttpRequest<T> implements Request<T>, Request.SessionLi
                     }
                 }
             });
+
+            if (tag != null) {
+                requestHandle.setTag(tag);
+            }
         } catch (FileNotFoundException e) {
             error = new PodioError(e);
             deliverError();
         }
     }
 
+    /**
+     * Takes a token from the rate limiter. Should there be none, the upload is either run again
+     * once a token is expected to be available, or failed if that is too far out.
+     *
+     * @return Boolean true if the upload may run now, boolean false otherwise.
+     */
+    private boolean acquireRateLimit() {
+        RateLimiter rateLimiter = this.rateLimiter;
+
+        if (rateLimiter == null) {
+            return true;
+        }
+
+        long delay = rateLimiter.acquire(Request.Priority.NORMAL);
+
+        if (delay == 0) {
+            return true;
+        }
+
+        Handler handler = new Handler(Looper.getMainLooper());
+
+        if (delay > MAX_RATE_LIMIT_DELAY_MS) {
+            error = new RateLimitError("The upload would exceed the rate limit and was not sent", delay);
+            // Give the caller a chance to add their listeners.
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (!isCanceled) {
+                        deliverError();
+                    }
+                }
+            });
+        } else {
+            handler.postDelayed(new Runnable() {
+                @Override
+                public void run() {
+                    runRequest();
+                }
+            }, delay);
+        }
+
+        return false;
+    }
+
+    private void updateRateLimit(int statusCode, Header[] headers) {
+        RateLimiter rateLimiter = this.rateLimiter;
+
+        if (rateLimiter == null) {
+            return;
+        }
+
+        if (statusCode == HTTP_ENHANCE_YOUR_CALM || statusCode == HTTP_TOO_MANY_REQUESTS) {
+            rateLimiter.onRateLimited();
+        } else {
+            rateLimiter.update(getHeader(headers, RateLimiter.HEADER_LIMIT), getHeader(headers, RateLimiter.HEADER_REMAINING));
+        }
+    }
+
+    private static String getHeader(Header[] headers, String name) {
+        if (headers != null) {
+            for (Header header : headers) {
+                if (name.equalsIgnoreCase(header.getName())) {
+                    return header.getValue();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private void measure(int statusCode, JsonStreamResponseHandler<T> handler) {
+        this.statusCode = statusCode;
+        this.headersAt = handler.getHeadersAt();
+        this.parsedAt = handler.getParsedAt();
+        this.bytesReceived = handler.getBytesReceived();
+    }
+
+    /**
+     * Reports the measurements of the last run of the upload. The loopj client doesn't tell when
+     * a run leaves its queue, so the queue time is part of the time to first byte, and successful
+     * responses are parsed while they're downloaded.
+     */
+    private void reportMetrics() {
+        Metrics.report(new RequestMetrics.Builder(RequestMetrics.Source.UPLOAD, Request.Method.POST.name(), RequestMetrics.toEndpointTemplate(url))
+                .withStatusCode(statusCode)
+                .withBytesSent(file != null ? file.length() : 0L)
+                .withBytesReceived(bytesReceived)
+                .withRetryCount(Math.max(runCount - 1, 0))
+                .withSuccess(error == null)
+                .withPhase(RequestMetrics.Phase.FIRST_BYTE, issuedAt, headersAt)
+                .withPhase(RequestMetrics.Phase.PARSE, headersAt, parsedAt)
+                .withPhase(RequestMetrics.Phase.DELIVERY, parsedAt, SystemClock.elapsedRealtime())
+                .build());
+    }
+
     private void deliverError() {
-        isDone = true;
+        reportMetrics();
+        markDone();
         callbackManager.deliverError(this.error);
     }
 
     private void deliverResponse() {
-        isDone = true;
+        reportMetrics();
+        markDone();
         callbackManager.deliverResult(result);
     }
 
+    private synchronized void markDone() {
+        isDone = true;
+        notifyAll();
+    }
+
     public Header[] getHeaders() {
         Header[] headers = new Header[2];
         String accessToken = Session.accessToken();
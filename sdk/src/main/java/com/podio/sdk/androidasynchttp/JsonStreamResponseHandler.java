@@ -0,0 +1,157 @@
+package com.podio.sdk.androidasynchttp;
+
+import android.os.SystemClock;
+
+import com.loopj.android.http.AsyncHttpResponseHandler;
+import com.podio.sdk.internal.Utils;
+import com.podio.sdk.json.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+
+import cz.msebera.android.httpclient.Header;
+import cz.msebera.android.httpclient.HttpEntity;
+import cz.msebera.android.httpclient.HttpResponse;
+import cz.msebera.android.httpclient.HttpStatus;
+import cz.msebera.android.httpclient.StatusLine;
+
+/**
+ * A response handler that parses successful JSON responses directly from the network stream, on
+ * the background thread, without buffering the body into a byte array or String first. Error
+ * responses are still buffered, as their (small) raw JSON body is needed to build a proper error.
+ */
+abstract class JsonStreamResponseHandler<T> extends AsyncHttpResponseHandler {
+    private final Class<T> classOfResult;
+    private volatile T result;
+
+    private volatile long headersAt;
+    private volatile long parsedAt;
+    private volatile long bytesReceived;
+
+    JsonStreamResponseHandler(Class<T> classOfResult) {
+        this.classOfResult = classOfResult;
+    }
+
+    @Override
+    public void sendResponseMessage(HttpResponse response) throws IOException {
+        // This method is executed on the background thread.
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+
+        headersAt = SystemClock.elapsedRealtime();
+        StatusLine status = response.getStatusLine();
+        int statusCode = status.getStatusCode();
+
+        if (statusCode >= HttpStatus.SC_MULTIPLE_CHOICES) {
+            // Let the default implementation buffer the error body for us.
+            super.sendResponseMessage(response);
+            return;
+        }
+
+        HttpEntity entity = response.getEntity();
+        InputStream inputStream = null;
+
+        try {
+            if (entity != null) {
+                bytesReceived = Math.max(entity.getContentLength(), 0L);
+            }
+
+            if (entity != null && classOfResult != null && classOfResult != Void.class) {
+                inputStream = entity.getContent();
+
+                if (inputStream != null) {
+                    result = JsonParser.fromJson(inputStream, getCharset(), classOfResult);
+                }
+            }
+        } catch (UnsupportedEncodingException e) {
+            sendFailureMessage(statusCode, response.getAllHeaders(), null, e);
+            return;
+        } catch (RuntimeException e) {
+            // The JSON couldn't be parsed into the requested type.
+            sendFailureMessage(statusCode, response.getAllHeaders(), null, e);
+            return;
+        } finally {
+            Utils.closeSilently(inputStream);
+            parsedAt = SystemClock.elapsedRealtime();
+        }
+
+        if (!Thread.currentThread().isInterrupted()) {
+            sendSuccessMessage(statusCode, response.getAllHeaders(), null);
+        }
+    }
+
+    @Override
+    public final void onSuccess(int statusCode, Header[] headers, byte[] responseBody) {
+        onResult(statusCode, headers, result);
+    }
+
+    @Override
+    public final void onFailure(int statusCode, Header[] headers, byte[] responseBody, Throwable error) {
+        String rawJsonData = null;
+
+        if (responseBody != null) {
+            bytesReceived = responseBody.length;
+
+            try {
+                rawJsonData = new String(responseBody, getCharset());
+            } catch (UnsupportedEncodingException e) {
+                rawJsonData = null;
+            }
+        }
+
+        onError(statusCode, headers, error, rawJsonData);
+    }
+
+    /**
+     * @return When the response headers arrived, as given by {@link SystemClock#elapsedRealtime()},
+     * or zero if they didn't.
+     */
+    long getHeadersAt() {
+        return headersAt;
+    }
+
+    /**
+     * @return When the successful response was parsed, straight off the network stream, or zero
+     * if it wasn't.
+     */
+    long getParsedAt() {
+        return parsedAt;
+    }
+
+    /**
+     * @return The size of the response body, as announced by the server for successful responses.
+     */
+    long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Called on the callback thread when a response has been successfully parsed.
+     *
+     * @param statusCode
+     *         The HTTP status code of the response.
+     * @param headers
+     *         The response headers.
+     * @param result
+     *         The parsed response body, or null if no result was expected.
+     */
+    protected abstract void onResult(int statusCode, Header[] headers, T result);
+
+    /**
+     * Called on the callback thread when the request failed, either on transport level, because
+     * the server responded with an error status or because the response couldn't be parsed.
+     *
+     * @param statusCode
+     *         The HTTP status code of the response, if any.
+     * @param headers
+     *         The response headers, if any.
+     * @param throwable
+     *         The cause of the failure.
+     * @param rawJsonData
+     *         The raw error body, or null if there is none.
+     */
+    protected abstract void onError(int statusCode, Header[] headers, Throwable throwable, String rawJsonData);
+
+}
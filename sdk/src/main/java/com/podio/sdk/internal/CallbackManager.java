@@ -65,6 +65,19 @@ public class CallbackManager<T> {
         }
     }
 
+    /**
+     * Releases all listeners without calling them.
+     */
+    public void clear() {
+        synchronized (RESULT_LISTENER_LOCK) {
+            resultListeners.clear();
+        }
+
+        synchronized (ERROR_LISTENER_LOCK) {
+            errorListeners.clear();
+        }
+    }
+
     public void deliverError(Throwable error) {
         // We will not be delivering a result -> clear the listener references.
         synchronized (RESULT_LISTENER_LOCK) {
@@ -5,6 +5,7 @@ import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
 import com.podio.sdk.domain.DataReference;
 import com.podio.sdk.domain.TaskAction;
 import com.podio.sdk.domain.field.Field;
@@ -14,6 +15,11 @@ import com.podio.sdk.domain.reference.ReferenceGroup;
 import com.podio.sdk.domain.stream.EventActivity;
 import com.podio.sdk.domain.stream.EventContext;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+
 public class JsonParser {
 
     private static final Gson GSON = new GsonBuilder()
@@ -41,6 +47,49 @@ public class JsonParser {
         }
     }
 
+    /**
+     * Parses the JSON read from the given stream into an object of the requested type. The bytes
+     * are decoded on the fly, as opposed to first being copied into a String, which keeps the
+     * memory footprint of large responses close to the size of the resulting object graph. The
+     * stream is not closed by this method.
+     *
+     * @param inputStream
+     *         The stream to read the JSON from.
+     * @param charSet
+     *         The char-set of the bytes in the stream.
+     * @param classOfResult
+     *         The type to parse the JSON into.
+     *
+     * @return The parsed object, or null if the stream was empty.
+     *
+     * @throws UnsupportedEncodingException
+     *         If the given char-set isn't supported.
+     */
+    public static <T> T fromJson(InputStream inputStream, String charSet, Class<T> classOfResult) throws UnsupportedEncodingException {
+        return fromJson(new InputStreamReader(inputStream, charSet), classOfResult);
+    }
+
+    /**
+     * Parses the JSON read from the given reader into an object of the requested type. The reader
+     * is not closed by this method.
+     *
+     * @param reader
+     *         The reader to read the JSON from.
+     * @param classOfResult
+     *         The type to parse the JSON into.
+     *
+     * @return The parsed object, or null if the reader was empty.
+     */
+    public static <T> T fromJson(Reader reader, Class<T> classOfResult) {
+        try {
+            return GSON.fromJson(new JsonReader(reader), classOfResult);
+        } catch (JsonSyntaxException e) {
+            throw new JsonSyntaxException("Couldn't parse json stream into " + classOfResult.getName(), e);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Couldn't parse json stream into " + classOfResult.getName(), e);
+        }
+    }
+
     public static <T> String toJson(T item) {
         return GSON.toJson(item);
     }
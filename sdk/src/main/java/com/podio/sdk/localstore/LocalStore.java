@@ -257,7 +257,7 @@ public class LocalStore extends QueueClient implements Store, LocalStoreRequest.
      * Hidden constructor.
      */
     private LocalStore() {
-        super(1, 1, 0L);
+        super();
         diskStoreLock = new Object();
     }
 
@@ -1,9 +1,14 @@
 
 package com.podio.sdk.localstore;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.LruCache;
 
+import com.podio.sdk.Metrics;
 import com.podio.sdk.Request;
+import com.podio.sdk.RequestMetrics;
 import com.podio.sdk.internal.CallbackManager;
 import com.podio.sdk.json.JsonParser;
 
@@ -13,8 +18,10 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.Locale;
 import java.nio.charset.Charset;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -298,6 +305,14 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
      */
     private Throwable error;
 
+    /**
+     * When this request was created, started executing and finished executing, as given by {@link
+     * SystemClock#elapsedRealtime()}.
+     */
+    private final long createdAt;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
     /**
      * Initializes the listener containers.
      *
@@ -307,6 +322,18 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
     LocalStoreRequest(Callable<T> callable) {
         super(callable);
         callbackManager = new CallbackManager<T>();
+        createdAt = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Records when the operation leaves the queue.
+     *
+     * @see java.util.concurrent.FutureTask#run()
+     */
+    @Override
+    public void run() {
+        startedAt = SystemClock.elapsedRealtime();
+        super.run();
     }
 
     /**
@@ -318,21 +345,65 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
     protected void done() {
         super.done();
 
+        if (isCancelled()) {
+            // Nobody is interested in the outcome any more.
+            callbackManager.clear();
+            return;
+        }
+
+        finishedAt = SystemClock.elapsedRealtime();
+
         try {
             result = get();
             error = null;
+            reportMetrics();
             callbackManager.deliverResultOnMainThread(result);
         } catch (ExecutionException e) {
             result = null;
             error = e.getCause();
+            reportMetrics();
             callbackManager.deliverErrorOnMainThread(error);
         } catch (InterruptedException e) {
             result = null;
             error = e;
+            reportMetrics();
             callbackManager.deliverErrorOnMainThread(error);
         }
     }
 
+    /**
+     * Reports the measurements of this operation once the main thread gets to deliver its
+     * outcome. Posted ahead of the delivery, so a failing callback can't keep it from running.
+     */
+    private void reportMetrics() {
+        final boolean isSuccess = error == null;
+        final String operation = getClass().getSimpleName().replace("Request", "").toUpperCase(Locale.US);
+
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                Metrics.report(new RequestMetrics.Builder(RequestMetrics.Source.LOCAL_STORE, operation, "/localstore")
+                        .withSuccess(isSuccess)
+                        .withPhase(RequestMetrics.Phase.QUEUE, createdAt, startedAt)
+                        .withPhase(RequestMetrics.Phase.STORE, startedAt, finishedAt)
+                        .withPhase(RequestMetrics.Phase.DELIVERY, finishedAt, SystemClock.elapsedRealtime())
+                        .build());
+            }
+        });
+    }
+
+    /**
+     * Cancels this request, unless it has already started executing. A request that is touching
+     * the disk is never interrupted, as that could leave a corrupt file behind.
+     *
+     * @see Request#cancel()
+     */
+    @Override
+    public void cancel() {
+        cancel(false);
+        callbackManager.clear();
+    }
+
     @Override
     public synchronized T waitForResult(long maxSeconds) {
         try {
@@ -343,6 +414,8 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
             callbackManager.deliverError(e);
         } catch (TimeoutException e) {
             callbackManager.deliverError(e);
+        } catch (CancellationException e) {
+            // The request was canceled, there is no result to wait for.
         }
 
         return null;
@@ -385,4 +458,15 @@ class LocalStoreRequest<T> extends FutureTask<T> implements Request<T> {
         throw new UnsupportedOperationException("This implementation doesn't handle sessions.");
     }
 
+    /**
+     * Ignores the tag. Local store requests are short lived and are not canceled by tag, but they
+     * can still be canceled individually.
+     *
+     * @see Request#withTag(Object)
+     */
+    @Override
+    public Request<T> withTag(Object tag) {
+        return this;
+    }
+
 }
@@ -4,6 +4,7 @@ package com.podio.sdk.provider;
 import com.podio.sdk.Filter;
 import com.podio.sdk.Provider;
 import com.podio.sdk.Request;
+import com.podio.sdk.RequestOptions;
 import com.podio.sdk.domain.Item;
 import com.podio.sdk.domain.ItemParticipation;
 
@@ -59,12 +60,29 @@ public class ItemProvider extends Provider {
      */
     public class ItemFilterProvider {
         private final Item.FilterData filterData;
+        private Request.Priority priority;
 
         /**
          * Constructor.
          */
         private ItemFilterProvider() {
             filterData = new Item.FilterData();
+            priority = Request.Priority.NORMAL;
+        }
+
+        /**
+         * Prepares the priority of the filter request. Use {@link Request.Priority#PREFETCH} for
+         * speculative fetches, e.g. the next page of a list, so they won't delay more urgent
+         * requests.
+         *
+         * @param priority
+         *         The priority to serve the request with.
+         *
+         * @return This instance of the ItemFilterProvider, to enable convenient chaining.
+         */
+        public ItemFilterProvider onPriority(Request.Priority priority) {
+            this.priority = priority;
+            return this;
         }
 
         /**
@@ -175,7 +193,7 @@ public class ItemProvider extends Provider {
          */
         public Request<Item.FilterResult> get(long applicationId) {
             Path filter = new Path().withApplicationIdFilter(applicationId);
-            return post(filter, filterData, Item.FilterResult.class);
+            return post(filter, filterData, Item.FilterResult.class, priority);
         }
 
         /**
@@ -197,7 +215,7 @@ public class ItemProvider extends Provider {
          */
         public Request<Item.FilterResult> get(long applicationId, long viewId) {
             Path filter = new Path().withApplicationAndViewIdFilter(applicationId, viewId);
-            return post(filter, filterData, Item.FilterResult.class);
+            return post(filter, filterData, Item.FilterResult.class, priority);
         }
     }
 
@@ -252,6 +270,37 @@ public class ItemProvider extends Provider {
         return get(filter, Item.class);
     }
 
+    /**
+     * Fetches the single item with the given id, with the given priority.
+     *
+     * @param itemId
+     *         The id of the item to fetch.
+     * @param priority
+     *         The priority to serve the request with.
+     *
+     * @return A ticket which the caller can use to identify this request with.
+     */
+    public Request<Item> get(long itemId, Request.Priority priority) {
+        Path filter = new Path().withItemId(itemId);
+        return get(filter, Item.class, priority);
+    }
+
+    /**
+     * Fetches the single item with the given id, served on the given terms. Hedging is well suited
+     * for items the user is actively waiting for.
+     *
+     * @param itemId
+     *         The id of the item to fetch.
+     * @param options
+     *         The priority, deadline and hedging of the request.
+     *
+     * @return A ticket which the caller can use to identify this request with.
+     */
+    public Request<Item> get(long itemId, RequestOptions options) {
+        Path filter = new Path().withItemId(itemId);
+        return get(filter, Item.class, options);
+    }
+
     /**
      * Enables filtered request of items.
      *
@@ -4,6 +4,7 @@ package com.podio.sdk.provider;
 import com.podio.sdk.Filter;
 import com.podio.sdk.Provider;
 import com.podio.sdk.Request;
+import com.podio.sdk.RequestOptions;
 import com.podio.sdk.domain.ReferenceType;
 import com.podio.sdk.domain.stream.EventContext;
 
@@ -62,6 +63,24 @@ public class StreamProvider extends Provider {
         return get(filter, EventContext[].class);
     }
 
+    /**
+     * Fetches the global stream, served on the given terms.
+     *
+     * @param limit
+     * @param offset
+     * @param options
+     *         The priority, deadline and hedging of the request.
+     *
+     * @return A ticket which the caller can use to identify this request with.
+     */
+    public Request<EventContext[]> getGlobalStream(int limit, int offset, RequestOptions options) {
+        StreamFilter filter = new StreamFilter();
+        filter.withLimit(limit);
+        filter.withOffset(offset);
+
+        return get(filter, EventContext[].class, options);
+    }
+
     /**
      * Fetches the global stream.
      *
@@ -80,6 +99,26 @@ public class StreamProvider extends Provider {
         return get(filter, EventContext[].class);
     }
 
+    /**
+     * Fetches the stream of a space, served on the given terms.
+     *
+     * @param spaceId The id of the space.
+     * @param limit
+     * @param offset
+     * @param options
+     *         The priority, deadline and hedging of the request.
+     *
+     * @return A ticket which the caller can use to identify this request with.
+     */
+    public Request<EventContext[]> getSpaceStream(long spaceId, int limit, int offset, RequestOptions options) {
+        StreamFilter filter = new StreamFilter();
+        filter.withSpace(spaceId);
+        filter.withLimit(limit);
+        filter.withOffset(offset);
+
+        return get(filter, EventContext[].class, options);
+    }
+
     /**
      * Fetches a stream object based on the reference type and it's corresponding id.
      *
@@ -94,4 +133,22 @@ public class StreamProvider extends Provider {
 
         return get(filter, EventContext.class);
     }
+
+    /**
+     * Fetches a stream object based on the reference type and it's corresponding id, served on
+     * the given terms.
+     *
+     * @param type
+     * @param id
+     * @param options
+     *         The priority, deadline and hedging of the request.
+     *
+     * @return A ticket which the caller can use to identify this request with.
+     */
+    public Request<EventContext> getStreamObject(ReferenceType type, long id, RequestOptions options) {
+        StreamFilter filter = new StreamFilter();
+        filter.withReference(type, id);
+
+        return get(filter, EventContext.class, options);
+    }
 }
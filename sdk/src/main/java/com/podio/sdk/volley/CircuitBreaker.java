@@ -0,0 +1,174 @@
+package com.podio.sdk.volley;
+
+import android.os.SystemClock;
+
+/**
+ * Guards an endpoint family (e.g. "item" or "conversation") of the API. The breaker counts the
+ * consecutive failures of the endpoint, where only failures pointing at a struggling server count
+ * (timeouts, broken connections and 5xx responses). Once the failures reach a threshold, the
+ * breaker opens and all further requests to the endpoint are failed right away, without hitting
+ * the network. After a cool-down period a single trial request is let through; should it succeed
+ * the breaker closes again, should it fail the breaker stays open for another period.
+ * <p/>
+ * The state and counters of a breaker are exposed for monitoring.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        /**
+         * Requests pass through.
+         */
+        CLOSED,
+
+        /**
+         * Requests are failed without hitting the network.
+         */
+        OPEN,
+
+        /**
+         * The cool-down period has passed and a trial request is let through.
+         */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+
+    private State state;
+    private int consecutiveFailureCount;
+    private long stateChangedAt;
+    private boolean isTrialInFlight;
+
+    private long successCount;
+    private long failureCount;
+    private long rejectedCount;
+
+    /**
+     * @param name
+     *         The endpoint family this breaker guards.
+     * @param failureThreshold
+     *         The number of consecutive failures that opens the breaker, at least one.
+     * @param openDurationMillis
+     *         The cool-down period, in milliseconds, before a trial request is let through.
+     */
+    CircuitBreaker(String name, int failureThreshold, long openDurationMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.openDurationMillis = openDurationMillis;
+        this.state = State.CLOSED;
+        this.stateChangedAt = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * @return The endpoint family this breaker guards.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The current state of the breaker.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return The number of consecutive failures since the last success.
+     */
+    public synchronized int getConsecutiveFailureCount() {
+        return consecutiveFailureCount;
+    }
+
+    /**
+     * @return The total number of successful requests.
+     */
+    public synchronized long getSuccessCount() {
+        return successCount;
+    }
+
+    /**
+     * @return The total number of failed requests.
+     */
+    public synchronized long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return The total number of requests that were failed right away while the breaker was open.
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Decides whether a request may hit the network.
+     *
+     * @return Boolean true if the request may be sent, boolean false if it should be failed.
+     */
+    synchronized boolean allowRequest() {
+        long now = SystemClock.elapsedRealtime();
+
+        switch (state) {
+            case OPEN:
+                if (now - stateChangedAt < openDurationMillis) {
+                    rejectedCount++;
+                    return false;
+                }
+
+                setState(State.HALF_OPEN, now);
+                isTrialInFlight = true;
+                return true;
+            case HALF_OPEN:
+                // A trial that never reports back (e.g. because it was canceled) must not keep
+                // the breaker half open forever.
+                if (isTrialInFlight && now - stateChangedAt < openDurationMillis) {
+                    rejectedCount++;
+                    return false;
+                }
+
+                stateChangedAt = now;
+                isTrialInFlight = true;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return Boolean true if requests are currently failed right away, boolean false otherwise.
+     */
+    synchronized boolean isOpen() {
+        return state == State.OPEN && SystemClock.elapsedRealtime() - stateChangedAt < openDurationMillis;
+    }
+
+    synchronized void recordSuccess() {
+        successCount++;
+        consecutiveFailureCount = 0;
+        isTrialInFlight = false;
+
+        if (state != State.CLOSED) {
+            setState(State.CLOSED, SystemClock.elapsedRealtime());
+        }
+    }
+
+    synchronized void recordFailure() {
+        failureCount++;
+        consecutiveFailureCount++;
+        isTrialInFlight = false;
+
+        if (state == State.HALF_OPEN || consecutiveFailureCount >= failureThreshold) {
+            setState(State.OPEN, SystemClock.elapsedRealtime());
+        }
+    }
+
+    private void setState(State state, long now) {
+        this.state = state;
+        this.stateChangedAt = now;
+    }
+
+}
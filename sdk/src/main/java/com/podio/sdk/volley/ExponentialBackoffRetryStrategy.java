@@ -0,0 +1,98 @@
+package com.podio.sdk.volley;
+
+import com.podio.sdk.ApiError;
+import com.podio.sdk.ConnectionError;
+import com.podio.sdk.NetworkError;
+import com.podio.sdk.NoResponseError;
+import com.podio.sdk.PodioError;
+import com.podio.sdk.Request;
+
+import java.net.HttpURLConnection;
+import java.util.Random;
+
+/**
+ * Retries idempotent requests (GET, PUT and DELETE) that failed for a reason that is likely to be
+ * transient: a timeout, a broken connection or an overloaded server (429, 502, 503 and 504
+ * responses).
+ * The delay grows exponentially with each attempt and is fully jittered, i.e. picked at random
+ * between zero and the exponential delay, so clients that failed at the same time don't retry in
+ * lockstep.
+ * <p/>
+ * Requests failing because the device is offline are not retried, neither are requests the server
+ * has rejected on their merits (4xx responses).
+ */
+public class ExponentialBackoffRetryStrategy implements RetryStrategy {
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Random random;
+
+    /**
+     * @param maxRetries
+     *         The maximum number of retries after the first attempt.
+     * @param baseDelayMillis
+     *         The upper bound of the delay before the first retry, in milliseconds.
+     * @param maxDelayMillis
+     *         The upper bound of the delay before any retry, in milliseconds.
+     */
+    public ExponentialBackoffRetryStrategy(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+        this(maxRetries, baseDelayMillis, maxDelayMillis, new Random());
+    }
+
+    ExponentialBackoffRetryStrategy(int maxRetries, long baseDelayMillis, long maxDelayMillis, Random random) {
+        this.maxRetries = Math.max(maxRetries, 0);
+        this.baseDelayMillis = Math.max(baseDelayMillis, 1L);
+        this.maxDelayMillis = Math.max(maxDelayMillis, this.baseDelayMillis);
+        this.random = random;
+    }
+
+    @Override
+    public long getRetryDelayMillis(Request.Method method, PodioError error, int attempt) {
+        if (attempt > maxRetries || !isIdempotent(method) || !isTransient(error)) {
+            return NO_RETRY;
+        }
+
+        // Shift with care, the exponential delay would overflow for large attempt counts.
+        int exponent = Math.min(Math.max(attempt - 1, 0), 30);
+        long ceiling = Math.min(baseDelayMillis << exponent, maxDelayMillis);
+
+        // Full jitter, the random source is thread safe.
+        return (long) (random.nextDouble() * (ceiling + 1));
+    }
+
+    /**
+     * @return Boolean true if sending the request more than once has the same effect as sending it
+     * once, boolean false otherwise.
+     */
+    protected boolean isIdempotent(Request.Method method) {
+        return method == Request.Method.GET
+                || method == Request.Method.PUT
+                || method == Request.Method.DELETE;
+    }
+
+    /**
+     * @return Boolean true if the error is likely to go away by itself, boolean false otherwise.
+     */
+    protected boolean isTransient(PodioError error) {
+        if (error instanceof ConnectionError) {
+            // The device is offline, retrying right away won't help.
+            return false;
+        }
+
+        if (error instanceof NoResponseError || error instanceof NetworkError) {
+            return true;
+        }
+
+        int statusCode = error instanceof ApiError ?
+                ((ApiError) error).getStatusCode() :
+                error.getResponseCode();
+
+        return statusCode == HttpURLConnection.HTTP_BAD_GATEWAY
+                || statusCode == HttpURLConnection.HTTP_UNAVAILABLE
+                || statusCode == HttpURLConnection.HTTP_GATEWAY_TIMEOUT
+                || statusCode == HTTP_TOO_MANY_REQUESTS;
+    }
+
+}
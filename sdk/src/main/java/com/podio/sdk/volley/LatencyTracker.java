@@ -0,0 +1,59 @@
+package com.podio.sdk.volley;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent response times of an endpoint family, so a hedged request knows how long
+ * a response usually takes before sending a second request.
+ */
+final class LatencyTracker {
+
+    // Percentiles of a handful of samples say more about chance than about the endpoint.
+    static final int MIN_SAMPLES = 20;
+
+    private final long[] samples;
+    private int count;
+    private int next;
+
+    /**
+     * @param capacity
+     *         The number of recent response times to keep, at least {@link #MIN_SAMPLES}.
+     */
+    LatencyTracker(int capacity) {
+        this.samples = new long[Math.max(capacity, MIN_SAMPLES)];
+        this.count = 0;
+        this.next = 0;
+    }
+
+    /**
+     * @param millis
+     *         The time it took to receive a response, in milliseconds.
+     */
+    synchronized void record(long millis) {
+        samples[next] = Math.max(millis, 0L);
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * @param percentile
+     *         The percentile, between 1 and 99, of the recent response times to return.
+     * @param fallback
+     *         The value to return while there are too few samples to go by.
+     *
+     * @return The response time, in milliseconds, below which the given percentile of the recent
+     * responses arrived, or the fallback.
+     */
+    synchronized long getPercentile(int percentile, long fallback) {
+        if (count < MIN_SAMPLES) {
+            return fallback;
+        }
+
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        int rank = (int) Math.ceil(Math.min(Math.max(percentile, 1), 99) * count / 100.0d);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+}
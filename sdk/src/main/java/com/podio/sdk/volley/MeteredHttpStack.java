@@ -0,0 +1,48 @@
+package com.podio.sdk.volley;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HttpStack;
+
+import org.apache.http.HttpResponse;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Wraps a network stack to tell the requests it performs when their response headers arrive. The
+ * stacks return as soon as the headers are in, leaving the body to be read afterwards, which
+ * separates the time to first byte from the download of a response.
+ */
+public final class MeteredHttpStack implements HttpStack {
+
+    /**
+     * Implemented by requests that want to know when their response headers arrive.
+     */
+    public interface Observer {
+
+        /**
+         * Called on the network thread once the response headers have arrived.
+         */
+        void onHeadersReceived();
+
+    }
+
+    private final HttpStack stack;
+
+    public MeteredHttpStack(HttpStack stack) {
+        this.stack = stack;
+    }
+
+    @Override
+    public HttpResponse performRequest(Request<?> request, Map<String, String> additionalHeaders) throws IOException, AuthFailureError {
+        HttpResponse response = stack.performRequest(request, additionalHeaders);
+
+        if (request instanceof Observer) {
+            ((Observer) request).onHeadersReceived();
+        }
+
+        return response;
+    }
+
+}
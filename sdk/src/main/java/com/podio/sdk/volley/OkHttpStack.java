@@ -0,0 +1,183 @@
+package com.podio.sdk.volley;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HttpStack;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.Response;
+import com.squareup.okhttp.ResponseBody;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * A Volley network stack on top of OkHttp. Where the server supports it, all concurrent requests
+ * to a host are multiplexed over a single HTTP/2 connection with compressed headers, so a screen
+ * fanning out a handful of parallel requests pays for one TCP and TLS handshake rather than one
+ * per request. Otherwise the stack falls back to pooled HTTP/1.1 keep-alive connections.
+ * <p/>
+ * HTTP/2 is negotiated with ALPN during the TLS handshake, hence it's only ever used over HTTPS
+ * and on platform versions supporting it.
+ */
+public class OkHttpStack implements HttpStack {
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_DURATION_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final OkHttpClient client;
+
+    public OkHttpStack() {
+        this(null);
+    }
+
+    /**
+     * @param sslSocketFactory
+     *         The optional SSL socket factory to use for HTTPS connections.
+     */
+    public OkHttpStack(SSLSocketFactory sslSocketFactory) {
+        client = new OkHttpClient();
+        client.setConnectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION_MS));
+        client.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        // Volley has a retry policy of its own.
+        client.setRetryOnConnectionFailure(false);
+
+        if (sslSocketFactory != null) {
+            client.setSslSocketFactory(sslSocketFactory);
+        }
+    }
+
+    @Override
+    public HttpResponse performRequest(Request<?> request, Map<String, String> additionalHeaders) throws IOException, AuthFailureError {
+        // The clone shares the connection pool, it only carries the timeouts of this request.
+        OkHttpClient client = this.client.clone();
+        int timeoutMs = request.getTimeoutMs();
+        client.setConnectTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        client.setReadTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        client.setWriteTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+
+        com.squareup.okhttp.Request.Builder builder = new com.squareup.okhttp.Request.Builder()
+                .url(request.getUrl());
+
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+
+        for (Map.Entry<String, String> header : additionalHeaders.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+
+        setMethodAndBody(builder, request);
+        Response response = client.newCall(builder.build()).execute();
+
+        BasicStatusLine statusLine = new BasicStatusLine(parseProtocol(response.protocol()), response.code(), response.message());
+        BasicHttpResponse httpResponse = new BasicHttpResponse(statusLine);
+        httpResponse.setEntity(entityFrom(response));
+
+        Headers headers = response.headers();
+        for (int i = 0, size = headers.size(); i < size; i++) {
+            httpResponse.addHeader(new BasicHeader(headers.name(i), headers.value(i)));
+        }
+
+        return httpResponse;
+    }
+
+    private static void setMethodAndBody(com.squareup.okhttp.Request.Builder builder, Request<?> request) throws AuthFailureError {
+        switch (request.getMethod()) {
+            case Request.Method.DEPRECATED_GET_OR_POST:
+                byte[] postBody = request.getPostBody();
+
+                if (postBody != null) {
+                    builder.post(RequestBody.create(MediaType.parse(request.getPostBodyContentType()), postBody));
+                } else {
+                    builder.get();
+                }
+                break;
+            case Request.Method.GET:
+                builder.get();
+                break;
+            case Request.Method.DELETE:
+                builder.method("DELETE", createBody(request, false));
+                break;
+            case Request.Method.POST:
+                builder.post(createBody(request, true));
+                break;
+            case Request.Method.PUT:
+                builder.put(createBody(request, true));
+                break;
+            case Request.Method.PATCH:
+                builder.patch(createBody(request, true));
+                break;
+            case Request.Method.HEAD:
+                builder.head();
+                break;
+            case Request.Method.OPTIONS:
+                builder.method("OPTIONS", null);
+                break;
+            case Request.Method.TRACE:
+                builder.method("TRACE", null);
+                break;
+            default:
+                throw new IllegalStateException("Unknown method type.");
+        }
+    }
+
+    private static RequestBody createBody(Request<?> request, boolean isRequired) throws AuthFailureError {
+        byte[] body = request.getBody();
+
+        if (body == null) {
+            if (!isRequired) {
+                return null;
+            }
+
+            body = EMPTY_BODY;
+        }
+
+        return RequestBody.create(MediaType.parse(request.getBodyContentType()), body);
+    }
+
+    private static BasicHttpEntity entityFrom(Response response) throws IOException {
+        ResponseBody body = response.body();
+        BasicHttpEntity entity = new BasicHttpEntity();
+        // Volley consumes the entity when done, which closes the stream and hands the connection
+        // back to the pool.
+        entity.setContent(body.byteStream());
+        entity.setContentLength(body.contentLength());
+        entity.setContentEncoding(response.header("Content-Encoding"));
+
+        MediaType contentType = body.contentType();
+        if (contentType != null) {
+            entity.setContentType(contentType.toString());
+        }
+
+        return entity;
+    }
+
+    private static ProtocolVersion parseProtocol(Protocol protocol) {
+        switch (protocol) {
+            case HTTP_1_0:
+                return new ProtocolVersion("HTTP", 1, 0);
+            case HTTP_2:
+                return new ProtocolVersion("HTTP", 2, 0);
+            default:
+                return new ProtocolVersion("HTTP", 1, 1);
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.podio.sdk.volley;
+
+import com.podio.sdk.Request.Priority;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+/**
+ * Admits requests to the network in priority order while honoring a concurrency limit for each
+ * priority class. Prefetch requests are held back for as long as there is any interactive
+ * (immediate or normal priority) work outstanding, so a background prefetch will never compete
+ * with a request the user is actually waiting for.
+ * <p/>
+ * A request holds its slot from the moment it's admitted until it finishes, i.e. until its
+ * response has been parsed or it's canceled.
+ */
+final class RequestScheduler {
+
+    /**
+     * The environment the scheduler operates in.
+     */
+    interface Host {
+
+        /**
+         * Hands an admitted request over to the network. This is never called while the
+         * scheduler holds its lock.
+         */
+        void execute(VolleyRequest<?> request);
+
+    }
+
+    private final Host host;
+    private final Object lock = new Object();
+
+    private final EnumMap<Priority, Integer> limits;
+    private final EnumMap<Priority, LinkedList<VolleyRequest<?>>> pending;
+    private final EnumMap<Priority, HashSet<VolleyRequest<?>>> running;
+
+    private final VolleyRequest.FinishListener finishListener = new VolleyRequest.FinishListener() {
+        @Override
+        public void onFinished(VolleyRequest<?> request) {
+            release(request);
+        }
+    };
+
+    RequestScheduler(Host host, int immediateLimit, int normalLimit, int prefetchLimit) {
+        this.host = host;
+        this.limits = new EnumMap<Priority, Integer>(Priority.class);
+        this.pending = new EnumMap<Priority, LinkedList<VolleyRequest<?>>>(Priority.class);
+        this.running = new EnumMap<Priority, HashSet<VolleyRequest<?>>>(Priority.class);
+
+        for (Priority priority : Priority.values()) {
+            pending.put(priority, new LinkedList<VolleyRequest<?>>());
+            running.put(priority, new HashSet<VolleyRequest<?>>());
+        }
+
+        limits.put(Priority.IMMEDIATE, immediateLimit);
+        limits.put(Priority.NORMAL, normalLimit);
+        limits.put(Priority.PREFETCH, prefetchLimit);
+    }
+
+    /**
+     * Sets the maximum number of concurrently executing requests of the given priority class.
+     *
+     * @param priority
+     *         The priority class.
+     * @param limit
+     *         The maximum number of concurrent requests. Values less than one are treated as one.
+     */
+    void setLimit(Priority priority, int limit) {
+        synchronized (lock) {
+            limits.put(priority, Math.max(limit, 1));
+        }
+
+        drain();
+    }
+
+    /**
+     * Queues a request for execution. It's handed over to the network as soon as its priority
+     * class has a free slot (and, for prefetch requests, no interactive work is outstanding).
+     *
+     * @param request
+     *         The request to schedule.
+     */
+    void submit(VolleyRequest<?> request) {
+        request.addFinishListener(finishListener);
+
+        synchronized (lock) {
+            pending.get(request.getRequestPriority()).add(request);
+        }
+
+        drain();
+    }
+
+    /**
+     * Cancels all requests that are still waiting for a slot.
+     */
+    void cancelPending() {
+        ArrayList<VolleyRequest<?>> canceled = new ArrayList<VolleyRequest<?>>();
+
+        synchronized (lock) {
+            for (LinkedList<VolleyRequest<?>> queue : pending.values()) {
+                canceled.addAll(queue);
+                queue.clear();
+            }
+        }
+
+        for (VolleyRequest<?> request : canceled) {
+            request.cancel();
+        }
+    }
+
+    /**
+     * @return The number of requests of the given priority class that are currently executing.
+     */
+    int getRunningCount(Priority priority) {
+        synchronized (lock) {
+            return running.get(priority).size();
+        }
+    }
+
+    /**
+     * @return The number of requests of the given priority class that are waiting for a slot.
+     */
+    int getPendingCount(Priority priority) {
+        synchronized (lock) {
+            return pending.get(priority).size();
+        }
+    }
+
+    private void release(VolleyRequest<?> request) {
+        synchronized (lock) {
+            Priority priority = request.getRequestPriority();
+
+            if (!running.get(priority).remove(request)) {
+                // The request was canceled before it was ever admitted.
+                pending.get(priority).remove(request);
+            }
+        }
+
+        drain();
+    }
+
+    private void drain() {
+        ArrayList<VolleyRequest<?>> admitted = new ArrayList<VolleyRequest<?>>();
+
+        synchronized (lock) {
+            // Priority.values() is ordered from the most to the least urgent class.
+            for (Priority priority : Priority.values()) {
+                if (priority == Priority.PREFETCH && hasInteractiveWork()) {
+                    continue;
+                }
+
+                LinkedList<VolleyRequest<?>> queue = pending.get(priority);
+                HashSet<VolleyRequest<?>> slots = running.get(priority);
+                int limit = limits.get(priority);
+
+                while (!queue.isEmpty() && slots.size() < limit) {
+                    VolleyRequest<?> request = queue.removeFirst();
+
+                    if (!request.isCanceled()) {
+                        slots.add(request);
+                        admitted.add(request);
+                    }
+                }
+            }
+        }
+
+        for (VolleyRequest<?> request : admitted) {
+            host.execute(request);
+        }
+    }
+
+    private boolean hasInteractiveWork() {
+        return !pending.get(Priority.IMMEDIATE).isEmpty()
+                || !running.get(Priority.IMMEDIATE).isEmpty()
+                || !pending.get(Priority.NORMAL).isEmpty()
+                || !running.get(Priority.NORMAL).isEmpty();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.podio.sdk.volley;
+
+import com.podio.sdk.PodioError;
+import com.podio.sdk.Request;
+
+/**
+ * Decides whether, and when, a failed request is sent again. Retries are never performed in
+ * place on the network thread; the request is handed back to the request queue once the delay
+ * has passed, leaving the network thread free for other requests in the meantime.
+ * <p/>
+ * Requests failing authentication are never handed to the strategy, they are replayed once the
+ * session has been refreshed.
+ */
+public interface RetryStrategy {
+
+    /**
+     * The delay returned for requests that shouldn't be retried.
+     */
+    long NO_RETRY = -1L;
+
+    /**
+     * Returns the delay before the next attempt of a failed request. This method is executed on a
+     * worker thread.
+     *
+     * @param method
+     *         The HTTP method of the failed request.
+     * @param error
+     *         The error the request failed with.
+     * @param attempt
+     *         The number of attempts made so far, starting at one.
+     *
+     * @return The delay in milliseconds, or {@link #NO_RETRY} if the request shouldn't be retried.
+     */
+    long getRetryDelayMillis(Request.Method method, PodioError error, int attempt);
+
+}
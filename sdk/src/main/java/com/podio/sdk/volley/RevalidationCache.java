@@ -0,0 +1,338 @@
+package com.podio.sdk.volley;
+
+import android.util.LruCache;
+
+import com.podio.sdk.internal.Utils;
+import com.podio.sdk.json.JsonParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * An HTTP revalidation cache for GET requests. The cache persists the validators (ETag and
+ * Last-Modified) together with the raw response body on disk, and keeps the parsed result objects
+ * in memory. A request that is answered with "304 Not Modified" can then be served the already
+ * parsed object, without downloading or parsing the body again.
+ * <p/>
+ * Entries are keyed on both the request url and the access token the request was sent with, so
+ * content will never leak between different users (or apps) on the same device.
+ * <p/>
+ * Note that the parsed result objects are shared between all requests that are served from the
+ * cache. Callers that intend to modify a delivered domain object should fetch a fresh copy.
+ */
+final class RevalidationCache {
+    private static final int FILE_FORMAT_VERSION = 1;
+    private static final String EMPTY = "";
+
+    /**
+     * Describes a cached response. The validators are always available, the parsed result is only
+     * available while the entry is in the memory cache.
+     */
+    static final class Entry {
+        final String eTag;
+        final String lastModified;
+        final Object result;
+
+        private Entry(String eTag, String lastModified, Object result) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Builds a cache key for the given url and access token. The access token is hashed so it's
+     * never written to the file system in plain text.
+     *
+     * @param url
+     *         The full url of the request.
+     * @param accessToken
+     *         The access token the request is authorized with.
+     *
+     * @return A hex encoded cache key, or null if no key could be built.
+     */
+    static String buildKey(String url, String accessToken) {
+        if (Utils.isEmpty(url)) {
+            return null;
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update((accessToken != null ? accessToken : EMPTY).getBytes("UTF-8"));
+            digest.update((byte) '\n');
+            digest.update(url.getBytes("UTF-8"));
+
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        } catch (UnsupportedEncodingException e) {
+            return null;
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0x0f, 16));
+            builder.append(Character.forDigit(b & 0x0f, 16));
+        }
+
+        return builder.toString();
+    }
+
+    private final File directory;
+    private final long maxDiskBytes;
+    private final LruCache<String, Entry> memoryCache;
+    private boolean isDiskTrimmed;
+
+    RevalidationCache(File directory, int maxMemoryEntries, long maxDiskBytes) {
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.memoryCache = new LruCache<String, Entry>(maxMemoryEntries);
+        this.isDiskTrimmed = false;
+    }
+
+    /**
+     * Removes all entries from both the memory and the disk cache.
+     */
+    synchronized void clear() {
+        memoryCache.evictAll();
+        File[] files = directory != null ? directory.listFiles() : null;
+
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the validators for the given key. This method may hit the file system and should
+     * not be called from the main thread.
+     *
+     * @param key
+     *         The cache key.
+     *
+     * @return The cached entry or null if nothing is cached for the key.
+     */
+    synchronized Entry get(String key) {
+        if (key == null) {
+            return null;
+        }
+
+        Entry entry = memoryCache.get(key);
+
+        if (entry == null) {
+            DataInputStream inputStream = null;
+
+            try {
+                inputStream = openEntryFile(key);
+
+                if (inputStream != null) {
+                    String eTag = inputStream.readUTF();
+                    String lastModified = inputStream.readUTF();
+                    entry = new Entry(emptyToNull(eTag), emptyToNull(lastModified), null);
+                }
+            } catch (IOException e) {
+                // The entry is corrupt. Make sure we don't trip on it again.
+                remove(key);
+                entry = null;
+            } finally {
+                Utils.closeSilently(inputStream);
+            }
+        }
+
+        return entry;
+    }
+
+    /**
+     * Returns the parsed result for the given key. If the result is no longer held in memory, the
+     * persisted body is read from disk and parsed. This method should not be called from the main
+     * thread.
+     *
+     * @param key
+     *         The cache key.
+     * @param classOfResult
+     *         The expected type of the result.
+     *
+     * @return The cached result or null if nothing (usable) is cached for the key.
+     */
+    synchronized <T> T getResult(String key, Class<T> classOfResult) {
+        if (key == null || classOfResult == null) {
+            return null;
+        }
+
+        Entry entry = memoryCache.get(key);
+
+        if (entry != null && classOfResult.isInstance(entry.result)) {
+            return classOfResult.cast(entry.result);
+        }
+
+        DataInputStream inputStream = null;
+
+        try {
+            inputStream = openEntryFile(key);
+
+            if (inputStream == null) {
+                return null;
+            }
+
+            String eTag = inputStream.readUTF();
+            String lastModified = inputStream.readUTF();
+            String charSet = inputStream.readUTF();
+            // Skip the body length, we parse the remainder of the stream as is.
+            inputStream.readInt();
+
+            T result = JsonParser.fromJson(inputStream, charSet, classOfResult);
+            memoryCache.put(key, new Entry(emptyToNull(eTag), emptyToNull(lastModified), result));
+
+            return result;
+        } catch (IOException e) {
+            remove(key);
+            return null;
+        } catch (RuntimeException e) {
+            // The persisted body could not be parsed into the requested type.
+            remove(key);
+            return null;
+        } finally {
+            Utils.closeSilently(inputStream);
+        }
+    }
+
+    /**
+     * Stores a response in the cache. Responses without any validators are ignored, as there is no
+     * way of revalidating them anyway.
+     *
+     * @param key
+     *         The cache key.
+     * @param eTag
+     *         The ETag response header value, if any.
+     * @param lastModified
+     *         The Last-Modified response header value, if any.
+     * @param body
+     *         The raw response body.
+     * @param charSet
+     *         The char-set of the raw response body.
+     * @param result
+     *         The parsed response body.
+     */
+    synchronized void put(String key, String eTag, String lastModified, byte[] body, String charSet, Object result) {
+        if (key == null || (Utils.isEmpty(eTag) && Utils.isEmpty(lastModified))) {
+            return;
+        }
+
+        memoryCache.put(key, new Entry(eTag, lastModified, result));
+
+        if (directory == null || body == null || (!directory.exists() && !directory.mkdirs())) {
+            return;
+        }
+
+        trimDiskIfNeeded();
+        DataOutputStream outputStream = null;
+
+        try {
+            outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(directory, key))));
+            outputStream.writeInt(FILE_FORMAT_VERSION);
+            outputStream.writeUTF(eTag != null ? eTag : EMPTY);
+            outputStream.writeUTF(lastModified != null ? lastModified : EMPTY);
+            outputStream.writeUTF(charSet != null ? charSet : "UTF-8");
+            outputStream.writeInt(body.length);
+            outputStream.write(body);
+        } catch (IOException e) {
+            // Intentionally consume the exception, the entry is still cached in memory.
+        } finally {
+            Utils.closeSilently(outputStream);
+        }
+    }
+
+    /**
+     * Removes the entry with the given key from both memory and disk.
+     *
+     * @param key
+     *         The cache key.
+     */
+    synchronized void remove(String key) {
+        if (key != null) {
+            memoryCache.remove(key);
+
+            if (directory != null) {
+                new File(directory, key).delete();
+            }
+        }
+    }
+
+    private DataInputStream openEntryFile(String key) throws IOException {
+        File file = directory != null ? new File(directory, key) : null;
+
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+        if (inputStream.readInt() != FILE_FORMAT_VERSION) {
+            Utils.closeSilently(inputStream);
+            file.delete();
+            return null;
+        }
+
+        return inputStream;
+    }
+
+    /**
+     * Deletes the least recently written files until the disk cache fits within its budget. This
+     * is only done once per process life time, on the first write.
+     */
+    private void trimDiskIfNeeded() {
+        if (isDiskTrimmed) {
+            return;
+        }
+
+        isDiskTrimmed = true;
+        File[] files = directory.listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        long totalSize = 0L;
+        for (File file : files) {
+            totalSize += file.length();
+        }
+
+        if (totalSize <= maxDiskBytes) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                long l = lhs.lastModified();
+                long r = rhs.lastModified();
+                return l < r ? -1 : (l == r ? 0 : 1);
+            }
+        });
+
+        for (int i = 0; i < files.length && totalSize > maxDiskBytes; i++) {
+            totalSize -= files[i].length();
+            files[i].delete();
+        }
+    }
+
+    private static String emptyToNull(String string) {
+        return Utils.isEmpty(string) ? null : string;
+    }
+
+}
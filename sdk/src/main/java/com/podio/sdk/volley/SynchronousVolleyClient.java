@@ -0,0 +1,281 @@
+package com.podio.sdk.volley;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Looper;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Network;
+import com.android.volley.toolbox.BasicNetwork;
+import com.podio.sdk.Dispatcher;
+import com.podio.sdk.Filter;
+import com.podio.sdk.NoResponseError;
+import com.podio.sdk.PodioError;
+import com.podio.sdk.RateLimitError;
+import com.podio.sdk.RateLimiter;
+import com.podio.sdk.Request;
+import com.podio.sdk.RequestOptions;
+import com.podio.sdk.Session;
+import com.podio.sdk.SessionManager;
+import com.podio.sdk.internal.Utils;
+import com.podio.sdk.json.JsonParser;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * A client that performs its requests on the calling thread. The HTTP call and the parsing of the
+ * response both happen on the caller's thread, and there is neither a request queue nor a main
+ * thread hand-over involved. This suits background jobs that already run on worker threads, and
+ * keeps them from competing with the user interface for the network threads of the {@link
+ * VolleyClient}.
+ * <p/>
+ * The requests returned by this client have already delivered. Any listener added to them is
+ * called right away, on the thread adding it, and {@link Request#waitForResult(long)} returns
+ * immediately. Alternatively {@link #execute(Request.Method, Filter, Object, Class)} returns the
+ * result directly, or throws a {@link PodioError}. Global error listeners are not called for
+ * requests performed by this client.
+ * <p/>
+ * An expired session is refreshed before the request is sent, and a request that fails
+ * authentication is sent once more after refreshing the session. Concurrent callers share a
+ * refresh. This client must never be used on the main thread.
+ * <p/>
+ * Requests performed by this client count as background traffic towards the rate limit. The
+ * calling thread is blocked while the budget is exhausted.
+ */
+public class SynchronousVolleyClient extends VolleyClient {
+
+    // How long the calling thread may be blocked for the rate limit before the request is failed.
+    private static final long MAX_RATE_LIMIT_DELAY_MS = 10L * 60L * 1000L;
+
+    private final Object refreshLock = new Object();
+    private volatile Network network;
+
+    /**
+     * Performs a request on the calling thread.
+     *
+     * @param method
+     *         The HTTP method of the request.
+     * @param filter
+     *         The filter describing the requested resource.
+     * @param item
+     *         The request body, or null.
+     * @param classOfResult
+     *         The type to parse the response into.
+     *
+     * @return The parsed response.
+     *
+     * @throws PodioError
+     *         If the request failed.
+     */
+    public <T> T execute(Request.Method method, Filter filter, Object item, Class<T> classOfResult) throws PodioError {
+        // The request has already delivered, so this won't wait at all.
+        return request(method, filter, item, classOfResult).waitForResult(0);
+    }
+
+    @Override
+    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult) {
+        return request(method, filter, item, classOfResult, new RequestOptions());
+    }
+
+    /**
+     * Performs the request on the calling thread. Requests performed by this client are served
+     * in the order they are issued, hence the priority is ignored.
+     *
+     * @see #request(Request.Method, Filter, Object, Class)
+     */
+    @Override
+    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult, Request.Priority priority) {
+        return request(method, filter, item, classOfResult);
+    }
+
+    /**
+     * Performs the request on the calling thread. The priority is ignored, as with {@link
+     * #request(Request.Method, Filter, Object, Class, Request.Priority)}, and so is hedging as
+     * there is no second thread to hedge on. The deadline is honored.
+     *
+     * @see #request(Request.Method, Filter, Object, Class)
+     */
+    @Override
+    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult, RequestOptions options) {
+        if (options == null) {
+            options = new RequestOptions();
+        }
+
+        String url = filter.buildUri(scheme, authority).toString();
+        String body = item != null ? JsonParser.toJson(item) : null;
+        long deadline = getDeadline(options);
+
+        VolleyRequest<T> request = VolleyRequest.newRequest(userAgent, method, url, body, classOfResult);
+        request.setDeadline(deadline);
+        request.setRetryPolicy(new VolleyRetryPolicy(deadline));
+        request.setRateLimiter(getRateLimiter());
+
+        if (awaitRateLimit(request)) {
+            perform(request);
+        }
+
+        request.reportMetrics();
+
+        return request;
+    }
+
+    @Override
+    @Deprecated
+    public Request<Void> forceRefreshTokens() {
+        synchronized (refreshLock) {
+            VolleyRequest<Void> request = newRefreshRequest();
+
+            if (request != null) {
+                request.performSynchronously(getNetwork());
+                request.reportMetrics();
+            }
+
+            return request;
+        }
+    }
+
+    /**
+     * Initializes the network of this client. Unlike {@link VolleyClient#setup(Context, String,
+     * String, String, String, String, SSLSocketFactory)} this doesn't touch the request queues,
+     * though the connections are shared with them.
+     */
+    @Override
+    public synchronized void setup(Context context, String scheme, String authority, String clientId, String clientSecret, String userAgent, SSLSocketFactory sslSocketFactory) {
+        this.scheme = scheme;
+        this.authority = authority;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.userAgent = userAgent;
+        this.network = new BasicNetwork(Dispatcher.getHttpStack(sslSocketFactory));
+    }
+
+    @Override
+    protected synchronized Request<Void> authenticate(Uri uri) {
+        VolleyRequest<Void> request = newAuthRequest(uri);
+        request.performSynchronously(getNetwork());
+        request.reportMetrics();
+
+        return request;
+    }
+
+    private void perform(VolleyRequest<?> request) {
+        String accessToken = Session.accessToken();
+
+        if (SessionManager.isExpired()) {
+            // There is no point in sending a request with an expired session. Should the refresh
+            // fail, the request will fail authentication on its own.
+            refresh(accessToken);
+            accessToken = Session.accessToken();
+        }
+
+        if (request.isPastDeadline()) {
+            request.rejectSynchronously(new NoResponseError("The deadline of the request passed before it was sent"));
+            return;
+        }
+
+        if (request.performSynchronously(getNetwork()) && !request.isPastDeadline() && refresh(accessToken)) {
+            // The replay publishes its outcome through the original request.
+            VolleyRequest<?> replay = request.newReplay();
+            replay.setRetryPolicy(new VolleyRetryPolicy(request.getDeadline()));
+            replay.performSynchronously(getNetwork());
+        }
+    }
+
+    /**
+     * Blocks the calling thread until the request fits in the rate limit budget. The request is
+     * failed if the wait would be unreasonably long, or outlast its deadline, or if the thread is
+     * interrupted.
+     *
+     * @return Boolean true if the request may be sent, boolean false if it has been failed.
+     */
+    private boolean awaitRateLimit(VolleyRequest<?> request) {
+        RateLimiter rateLimiter = getRateLimiter();
+
+        if (rateLimiter == null) {
+            return true;
+        }
+
+        try {
+            long delay;
+
+            while ((delay = rateLimiter.acquire(Request.Priority.PREFETCH)) > 0) {
+                if (delay > MAX_RATE_LIMIT_DELAY_MS || request.isPastDeadline(delay)) {
+                    request.rejectSynchronously(new RateLimitError("The request would exceed the rate limit and was not sent", delay));
+                    return false;
+                }
+
+                Thread.sleep(delay);
+            }
+
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.rejectSynchronously(new PodioError(e));
+            return false;
+        }
+    }
+
+    /**
+     * Refreshes the session, unless it has already been refreshed since the given access token
+     * was current.
+     *
+     * @param staleAccessToken
+     *         The access token that is known to be stale.
+     *
+     * @return Boolean true if there is a fresh session, boolean false otherwise.
+     */
+    private boolean refresh(String staleAccessToken) {
+        synchronized (refreshLock) {
+            String accessToken = Session.accessToken();
+
+            if (Utils.notEmpty(accessToken) && !accessToken.equals(staleAccessToken)) {
+                // Another caller has refreshed the session in the meantime.
+                return true;
+            }
+
+            VolleyRequest<Void> request = newRefreshRequest();
+
+            if (request == null) {
+                return false;
+            }
+
+            request.performSynchronously(getNetwork());
+            request.reportMetrics();
+
+            try {
+                // The request has already delivered, so this won't wait at all.
+                request.waitForResult(0);
+                return true;
+            } catch (PodioError e) {
+                return false;
+            }
+        }
+    }
+
+    private VolleyRequest<Void> newRefreshRequest() {
+        Uri uri = buildAuthUri();
+        return uri != null ? newAuthRequest(uri) : null;
+    }
+
+    private VolleyRequest<Void> newAuthRequest(Uri uri) {
+        VolleyRequest<Void> request = VolleyRequest.newAuthRequest(userAgent, parseUrl(uri), parseParams(uri));
+        request.setRetryPolicy(new DefaultRetryPolicy(CLIENT_DEFAULT_TIMEOUT_MS, 0, 0));
+
+        return request;
+    }
+
+    private Network getNetwork() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("Synchronous requests must not be performed on the main thread");
+        }
+
+        Network network = this.network;
+
+        if (network == null) {
+            throw new IllegalStateException("The client hasn't been set up");
+        }
+
+        return network;
+    }
+
+}
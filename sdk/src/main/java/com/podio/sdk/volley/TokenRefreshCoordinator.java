@@ -0,0 +1,254 @@
+package com.podio.sdk.volley;
+
+import com.podio.sdk.PodioError;
+import com.podio.sdk.Request;
+import com.podio.sdk.Session;
+import com.podio.sdk.internal.Utils;
+
+import java.util.ArrayList;
+
+/**
+ * Ensures that at most one access token refresh is in flight at any given time. Requests that fail
+ * with a "401 Unauthorized" status are parked here, without blocking any threads, while the
+ * refresh is running. Once the refresh succeeds the parked requests are replayed with the new
+ * access token. Should the refresh fail, then all parked requests are failed together. Requests
+ * issued after the session has expired can also be deferred here, before they are even sent.
+ */
+final class TokenRefreshCoordinator {
+
+    /**
+     * The environment the coordinator operates in. The coordinator itself knows nothing about how
+     * to build, send or replay requests.
+     */
+    interface Host {
+
+        /**
+         * @return A new, not yet enqueued, refresh request or null if the session can't be
+         * refreshed (e.g. there is no refresh token).
+         */
+        VolleyRequest<Void> newRefreshRequest();
+
+        void enqueueRefresh(VolleyRequest<Void> refreshRequest);
+
+        void send(VolleyRequest<?> deferredRequest);
+
+        void replay(VolleyRequest<?> parkedRequest);
+
+        void onRefreshFailed();
+
+    }
+
+    private final Host host;
+    private final ArrayList<VolleyRequest<?>> parkedRequests;
+    private final ArrayList<VolleyRequest<?>> deferredRequests;
+    private final Object lock = new Object();
+
+    private VolleyRequest<Void> refreshRequest;
+    private int refreshCount;
+
+    TokenRefreshCoordinator(Host host) {
+        this.host = host;
+        this.parkedRequests = new ArrayList<VolleyRequest<?>>();
+        this.deferredRequests = new ArrayList<VolleyRequest<?>>();
+        this.refreshRequest = null;
+        this.refreshCount = 0;
+    }
+
+    /**
+     * Parks a request that has failed authentication. If the session has already been refreshed
+     * since the request was sent, the request is replayed right away, otherwise it's held until
+     * the (possibly already running) refresh request finishes. This method is typically called on
+     * a network thread.
+     *
+     * @param request
+     *         The request that failed authentication.
+     * @param accessToken
+     *         The access token the request was sent with.
+     *
+     * @return Boolean true if the request has been taken care of, boolean false if it can't be
+     * recovered and should fail as is.
+     */
+    boolean park(VolleyRequest<?> request, String accessToken) {
+        VolleyRequest<Void> newRefreshRequest = null;
+        boolean isStale = false;
+
+        synchronized (lock) {
+            if (refreshRequest == null) {
+                String currentAccessToken = Session.accessToken();
+
+                if (Utils.notEmpty(currentAccessToken) && !currentAccessToken.equals(accessToken)) {
+                    // Someone else has already refreshed the session for us.
+                    isStale = true;
+                } else {
+                    newRefreshRequest = startRefresh();
+
+                    if (newRefreshRequest == null) {
+                        return false;
+                    }
+
+                    parkedRequests.add(request);
+                }
+            } else {
+                parkedRequests.add(request);
+            }
+        }
+
+        // Talk to the host outside of the lock as it will synchronize on its request queues.
+        if (isStale) {
+            host.replay(request);
+        } else if (newRefreshRequest != null) {
+            host.enqueueRefresh(newRefreshRequest);
+        }
+
+        return true;
+    }
+
+    /**
+     * Holds back a request, that hasn't been sent yet, until the session has been refreshed. This
+     * is used for requests issued after the session has expired, which would otherwise be sent
+     * only to fail authentication.
+     *
+     * @param request
+     *         The request to send once the session has been refreshed.
+     *
+     * @return Boolean true if the request has been deferred, boolean false if the session can't
+     * be refreshed and the request should be sent as is.
+     */
+    boolean defer(VolleyRequest<?> request) {
+        VolleyRequest<Void> newRefreshRequest = null;
+
+        synchronized (lock) {
+            if (refreshRequest == null) {
+                newRefreshRequest = startRefresh();
+
+                if (newRefreshRequest == null) {
+                    return false;
+                }
+            }
+
+            deferredRequests.add(request);
+        }
+
+        if (newRefreshRequest != null) {
+            host.enqueueRefresh(newRefreshRequest);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the currently running refresh request, or starts a new one if there is none.
+     *
+     * @return The refresh request or null if the session can't be refreshed.
+     */
+    VolleyRequest<Void> refresh() {
+        VolleyRequest<Void> newRefreshRequest;
+
+        synchronized (lock) {
+            if (refreshRequest != null) {
+                return refreshRequest;
+            }
+
+            newRefreshRequest = startRefresh();
+        }
+
+        if (newRefreshRequest != null) {
+            host.enqueueRefresh(newRefreshRequest);
+        }
+
+        return newRefreshRequest;
+    }
+
+    /**
+     * @return The number of refresh requests this coordinator has issued.
+     */
+    int getRefreshCount() {
+        synchronized (lock) {
+            return refreshCount;
+        }
+    }
+
+    /**
+     * Drops all parked requests without delivering anything to them and forgets about any running
+     * refresh request.
+     */
+    void reset() {
+        synchronized (lock) {
+            parkedRequests.clear();
+            deferredRequests.clear();
+            refreshRequest = null;
+        }
+    }
+
+    private VolleyRequest<Void> startRefresh() {
+        final VolleyRequest<Void> request = host.newRefreshRequest();
+
+        if (request == null) {
+            return null;
+        }
+
+        // The callbacks are delivered on the main thread.
+        request.withResultListener(new Request.ResultListener<Void>() {
+            @Override
+            public boolean onRequestPerformed(Void content) {
+                ArrayList<VolleyRequest<?>> deferred = new ArrayList<VolleyRequest<?>>();
+
+                for (VolleyRequest<?> parkedRequest : onRefreshFinished(request, deferred)) {
+                    if (!parkedRequest.isCanceled()) {
+                        host.replay(parkedRequest);
+                    }
+                }
+
+                for (VolleyRequest<?> deferredRequest : deferred) {
+                    if (!deferredRequest.isCanceled()) {
+                        host.send(deferredRequest);
+                    }
+                }
+
+                return false;
+            }
+        }).withErrorListener(new Request.ErrorListener() {
+            @Override
+            public boolean onErrorOccurred(Throwable cause) {
+                ArrayList<VolleyRequest<?>> deferred = new ArrayList<VolleyRequest<?>>();
+                ArrayList<VolleyRequest<?>> failed = onRefreshFinished(request, deferred);
+                failed.addAll(deferred);
+                host.onRefreshFailed();
+
+                PodioError error = cause instanceof PodioError ? (PodioError) cause : new PodioError(cause);
+
+                for (VolleyRequest<?> failedRequest : failed) {
+                    if (!failedRequest.isCanceled()) {
+                        failedRequest.failParked(error);
+                    }
+                }
+
+                // Let any global error listeners know that the session couldn't be refreshed.
+                return false;
+            }
+        });
+
+        refreshRequest = request;
+        refreshCount++;
+
+        return request;
+    }
+
+    private ArrayList<VolleyRequest<?>> onRefreshFinished(VolleyRequest<Void> request, ArrayList<VolleyRequest<?>> deferred) {
+        synchronized (lock) {
+            if (refreshRequest != request) {
+                // We've been reset since the refresh was started.
+                return new ArrayList<VolleyRequest<?>>(0);
+            }
+
+            ArrayList<VolleyRequest<?>> snapshot = new ArrayList<VolleyRequest<?>>(parkedRequests);
+            parkedRequests.clear();
+            deferred.addAll(deferredRequests);
+            deferredRequests.clear();
+            refreshRequest = null;
+
+            return snapshot;
+        }
+    }
+
+}
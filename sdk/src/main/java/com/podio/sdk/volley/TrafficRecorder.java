@@ -0,0 +1,273 @@
+package com.podio.sdk.volley;
+
+import android.os.SystemClock;
+import android.util.Base64;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HttpStack;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Records the request and response exchanges of the SDK to a file, one JSON object per line, so
+ * a real session can be played back later on, e.g. to catch performance regressions in the
+ * parsing and dispatch layers. Access tokens, refresh tokens, passwords and client secrets are
+ * redacted from the headers, urls and bodies before they're written.
+ * <p/>
+ * Each line holds the "method", the "url" (path and query), the "request_headers", the
+ * "request_body", the response "status", the "response_headers", and either the "response_body"
+ * or, for responses that aren't text, the "response_body_base64". It also holds the time the
+ * request was sent at, in milliseconds since the first recorded request ("at"), and the time it
+ * took to get the full response ("duration").
+ * <p/>
+ * A recorder is enabled with {@link com.podio.sdk.Dispatcher#setTrafficRecorder(TrafficRecorder)}
+ * before the SDK is set up. Recording buffers every response body in memory and should never be
+ * enabled in a release build.
+ */
+public final class TrafficRecorder {
+    private static final String REDACTED = "REDACTED";
+
+    private static final String SECRETS = "access_token|refresh_token|transfer_token|client_secret|password";
+    private static final Pattern JSON_SECRET = Pattern.compile("(\"(?:" + SECRETS + ")\"\\s*:\\s*\")[^\"]*(\")");
+    private static final Pattern FORM_SECRET = Pattern.compile("((?:^|[?&])(?:" + SECRETS + ")=)[^&]*");
+
+    private final File file;
+    private final Object lock;
+
+    private Writer writer;
+    private long startedAt;
+
+    /**
+     * @param file
+     *         The file to append the exchanges to.
+     */
+    public TrafficRecorder(File file) {
+        this.file = file;
+        this.lock = new Object();
+        this.startedAt = 0L;
+    }
+
+    /**
+     * Wraps a network stack to record the exchanges it performs.
+     *
+     * @param stack
+     *         The network stack to record.
+     *
+     * @return The recording network stack.
+     */
+    public HttpStack wrap(HttpStack stack) {
+        return new RecordingHttpStack(stack, this);
+    }
+
+    /**
+     * @return The file the exchanges are appended to.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Flushes and closes the file. Any exchange performed after this point opens it again.
+     */
+    public void close() {
+        synchronized (lock) {
+            closeWriter();
+        }
+    }
+
+    void record(Request<?> request, Map<String, String> additionalHeaders, HttpResponse response, byte[] responseBody, long sentAt, long receivedAt) {
+        JSONObject exchange = new JSONObject();
+
+        try {
+            HashMap<String, String> requestHeaders = new HashMap<String, String>();
+            requestHeaders.putAll(request.getHeaders());
+            requestHeaders.putAll(additionalHeaders);
+
+            byte[] requestBody = request.getBody();
+
+            exchange.put("method", getMethodName(request.getMethod()));
+            exchange.put("url", redact(getPathAndQuery(request.getUrl())));
+            exchange.put("request_headers", redactHeaders(requestHeaders));
+            exchange.put("request_body", requestBody != null ? redact(new String(requestBody, "UTF-8")) : null);
+            exchange.put("status", response.getStatusLine().getStatusCode());
+
+            HashMap<String, String> responseHeaders = new HashMap<String, String>();
+            for (Header header : response.getAllHeaders()) {
+                responseHeaders.put(header.getName(), header.getValue());
+            }
+
+            exchange.put("response_headers", redactHeaders(responseHeaders));
+
+            if (responseBody != null) {
+                if (isText(response.getEntity())) {
+                    exchange.put("response_body", redact(new String(responseBody, "UTF-8")));
+                } else {
+                    exchange.put("response_body_base64", Base64.encodeToString(responseBody, Base64.NO_WRAP));
+                }
+            }
+        } catch (AuthFailureError e) {
+            return;
+        } catch (IOException e) {
+            return;
+        } catch (JSONException e) {
+            return;
+        }
+
+        synchronized (lock) {
+            if (startedAt == 0L) {
+                startedAt = sentAt;
+            }
+
+            try {
+                exchange.put("at", sentAt - startedAt);
+                exchange.put("duration", receivedAt - sentAt);
+
+                if (writer == null) {
+                    writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), "UTF-8"));
+                }
+
+                writer.write(exchange.toString());
+                writer.write('\n');
+                writer.flush();
+            } catch (JSONException e) {
+                // Can't happen, the values are finite numbers.
+            } catch (IOException e) {
+                // A recording failure must never fail the request.
+                closeWriter();
+            }
+        }
+    }
+
+    /**
+     * Replaces the values of all known secrets in a url, a form encoded body or a JSON document.
+     *
+     * @param text
+     *         The text to redact.
+     *
+     * @return The redacted text.
+     */
+    static String redact(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        String redacted = JSON_SECRET.matcher(text).replaceAll("$1" + REDACTED + "$2");
+        return FORM_SECRET.matcher(redacted).replaceAll("$1" + REDACTED);
+    }
+
+    private static JSONObject redactHeaders(Map<String, String> headers) throws JSONException {
+        JSONObject result = new JSONObject();
+
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            String name = entry.getKey();
+            String key = name.toLowerCase(Locale.US);
+
+            if ("authorization".equals(key)) {
+                String value = entry.getValue();
+                int space = value != null ? value.indexOf(' ') : -1;
+                result.put(name, space > 0 ? value.substring(0, space + 1) + REDACTED : REDACTED);
+            } else if ("cookie".equals(key) || "set-cookie".equals(key)) {
+                result.put(name, REDACTED);
+            } else {
+                result.put(name, entry.getValue());
+            }
+        }
+
+        return result;
+    }
+
+    private static String getMethodName(int method) {
+        switch (method) {
+            case Request.Method.POST:
+                return "POST";
+            case Request.Method.PUT:
+                return "PUT";
+            case Request.Method.DELETE:
+                return "DELETE";
+            case Request.Method.HEAD:
+                return "HEAD";
+            default:
+                return "GET";
+        }
+    }
+
+    private static String getPathAndQuery(String url) {
+        int scheme = url.indexOf("://");
+        int path = scheme >= 0 ? url.indexOf('/', scheme + 3) : 0;
+        return path >= 0 ? url.substring(path) : "/";
+    }
+
+    private static boolean isText(HttpEntity entity) {
+        Header contentType = entity != null ? entity.getContentType() : null;
+        String value = contentType != null ? contentType.getValue().toLowerCase(Locale.US) : "";
+
+        return value.startsWith("text/") || value.contains("json") || value.contains("x-www-form-urlencoded");
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // Nothing more to do.
+            }
+
+            writer = null;
+        }
+    }
+
+    /**
+     * Buffers the response bodies of the wrapped stack, hands the exchanges to the recorder and
+     * returns the buffered bodies in their place.
+     */
+    private static final class RecordingHttpStack implements HttpStack {
+        private final HttpStack stack;
+        private final TrafficRecorder recorder;
+
+        private RecordingHttpStack(HttpStack stack, TrafficRecorder recorder) {
+            this.stack = stack;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public HttpResponse performRequest(Request<?> request, Map<String, String> additionalHeaders) throws IOException, AuthFailureError {
+            long sentAt = SystemClock.elapsedRealtime();
+            HttpResponse response = stack.performRequest(request, additionalHeaders);
+            HttpEntity entity = response.getEntity();
+            byte[] body = null;
+
+            if (entity != null) {
+                body = EntityUtils.toByteArray(entity);
+
+                if (body != null) {
+                    ByteArrayEntity buffered = new ByteArrayEntity(body);
+                    buffered.setContentType(entity.getContentType());
+                    buffered.setContentEncoding(entity.getContentEncoding());
+                    response.setEntity(buffered);
+                }
+            }
+
+            recorder.record(request, additionalHeaders, response, body, sentAt, SystemClock.elapsedRealtime());
+            return response;
+        }
+    }
+
+}
@@ -47,6 +47,15 @@ final class VolleyCallbackManager<T> extends CallbackManager<T> {
         }
     }
 
+    @Override
+    public void clear() {
+        super.clear();
+
+        synchronized (SESSION_LISTENER_LOCK) {
+            sessionListeners.clear();
+        }
+    }
+
     void deliverSession() {
         String accessToken = Session.accessToken();
         String refreshToken = Session.refreshToken();
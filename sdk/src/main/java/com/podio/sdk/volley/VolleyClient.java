@@ -3,29 +3,41 @@ package com.podio.sdk.volley;
 
 import android.content.Context;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 
 import com.android.volley.AuthFailureError;
-import com.android.volley.Cache;
 import com.android.volley.DefaultRetryPolicy;
 import com.android.volley.RequestQueue;
 import com.android.volley.RequestQueue.RequestFilter;
 import com.android.volley.VolleyError;
-import com.android.volley.toolbox.HurlStack;
-import com.android.volley.toolbox.Volley;
+import com.podio.sdk.CircuitOpenError;
 import com.podio.sdk.Client;
+import com.podio.sdk.Dispatcher;
 import com.podio.sdk.Filter;
+import com.podio.sdk.NoResponseError;
+import com.podio.sdk.PodioError;
+import com.podio.sdk.RateLimitError;
+import com.podio.sdk.RateLimiter;
 import com.podio.sdk.Request;
+import com.podio.sdk.RequestOptions;
 import com.podio.sdk.Session;
+import com.podio.sdk.SessionManager;
 import com.podio.sdk.internal.Utils;
 import com.podio.sdk.json.JsonParser;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLSocketFactory;
 
-public class VolleyClient implements Client {
+public class VolleyClient implements Client, SessionManager.Refresher {
 
     static class AuthPath extends Filter {
 
@@ -69,47 +81,49 @@ public class VolleyClient implements Client {
 
     }
 
-    private final class VolleyRetryPolicy extends DefaultRetryPolicy {
-        private final String originalAccessToken;
+    static final class VolleyRetryPolicy extends DefaultRetryPolicy {
 
-        private VolleyRetryPolicy(String referenceAccessToken) {
-            super(CLIENT_DEFAULT_TIMEOUT_MS, 1, 1.0f);
-            this.originalAccessToken = referenceAccessToken;
+        private final long deadline;
+
+        VolleyRetryPolicy() {
+            this(0L);
+        }
+
+        /**
+         * @param deadline
+         *         The deadline of the request, in {@link SystemClock#elapsedRealtime()}
+         *         milliseconds, or zero for no deadline.
+         */
+        VolleyRetryPolicy(long deadline) {
+            // Nothing is retried in place, as that would hold on to the network thread. Failed
+            // requests are instead replayed by the retry strategy once their back-off has passed.
+            super(CLIENT_DEFAULT_TIMEOUT_MS, 0, 1.0f);
+            this.deadline = deadline;
         }
 
         @Override
-        public void retry(VolleyError error) throws VolleyError {
-            super.retry(error);
-            String accessToken = Utils.notEmpty(originalAccessToken) ? originalAccessToken : "";
-
-            // If the access token has changed since this request was originally executed (say, as a
-            // result of an other request refreshing it), the 401 status isn't necessarily valid any
-            // more, hence, we should only re-authenticate if our access token is intact.
-            if (error instanceof AuthFailureError && accessToken.equals(Session.accessToken())) {
-                Uri uri = buildAuthUri();
-
-                if (uri == null) {
-                    // Opt out if we can't re-authenticate.
-                    clearRequestQueue();
-                    throw error;
-                }
+        public int getCurrentTimeout() {
+            int timeout = super.getCurrentTimeout();
 
-                String url = parseUrl(uri);
-                HashMap<String, String> params = parseParams(uri);
+            if (deadline <= 0L) {
+                return timeout;
+            }
 
-                // Re-authenticate on a prioritized request queue.
-                VolleyRequest<Void> reAuthRequest = VolleyRequest.newAuthRequest(userAgent, url, params);
-                reAuthRequest.setRetryPolicy(new DefaultRetryPolicy(CLIENT_DEFAULT_TIMEOUT_MS, 0, 0));
-                addToRefreshQueue(reAuthRequest);
+            // Never give the transport more time than what is left of the deadline.
+            long remaining = deadline - SystemClock.elapsedRealtime();
+            return (int) Math.max(Math.min(timeout, remaining), 1L);
+        }
 
-                reAuthRequest.withErrorListener(new Request.ErrorListener() {
-                    @Override
-                    public boolean onErrorOccurred(Throwable cause) {
-                        clearRequestQueue();
-                        return false;
-                    }
-                }).waitForResult(TimeUnit.MILLISECONDS.toSeconds(CLIENT_DEFAULT_TIMEOUT_MS));
+        @Override
+        public void retry(VolleyError error) throws VolleyError {
+            // Authentication failures are never retried in place, as that would require blocking
+            // this network thread while re-authenticating. Instead the request is replayed once
+            // the session has been refreshed.
+            if (error instanceof AuthFailureError) {
+                throw error;
             }
+
+            super.retry(error);
         }
     }
 
@@ -119,9 +133,145 @@ public class VolleyClient implements Client {
     protected String authority;
     protected String userAgent;
 
-    // All implementations and instances will share these request queues.
+    private static final String REVALIDATION_CACHE_DIRECTORY = "podio-revalidation";
+    private static final int REVALIDATION_CACHE_MEMORY_ENTRIES = 64;
+    private static final long REVALIDATION_CACHE_DISK_BYTES = 10L * 1024L * 1024L;
+
+    // The dispatcher runs four network threads by default. Normal priority requests leave one of
+    // them for immediate requests and images, and prefetch requests never hog more than one.
+    private static final int DEFAULT_IMMEDIATE_CONCURRENCY = Dispatcher.DEFAULT_NETWORK_THREADS;
+    private static final int DEFAULT_NORMAL_CONCURRENCY = Dispatcher.DEFAULT_NETWORK_THREADS - 1;
+    private static final int DEFAULT_PREFETCH_CONCURRENCY = 1;
+
+    private static final int DEFAULT_MAX_RETRIES = 2;
+    private static final long DEFAULT_RETRY_BASE_DELAY_MS = 500L;
+    private static final long DEFAULT_RETRY_MAX_DELAY_MS = 8000L;
+
+    // How long a request may be held back for the rate limit before it's failed instead.
+    // Background requests are expected to be patient.
+    private static final long MAX_INTERACTIVE_RATE_LIMIT_DELAY_MS = 5000L;
+    private static final long MAX_BACKGROUND_RATE_LIMIT_DELAY_MS = 10L * 60L * 1000L;
+
+    private static final int CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+    private static final long CIRCUIT_BREAKER_OPEN_DURATION_MS = 30000L;
+
+    // Requests are hedged after this long until enough response times have been recorded.
+    private static final long DEFAULT_HEDGING_DELAY_MS = 1000L;
+    private static final int LATENCY_SAMPLES = 100;
+
+    // All implementations and instances will share this request queue, which in turn is shared
+    // with the rest of the SDK. Session refreshes are sent on it with the highest priority.
     private static RequestQueue volleyRequestQueue;
-    private static RequestQueue volleyRefreshQueue;
+
+    // All implementations and instances will share this cache.
+    private static RevalidationCache revalidationCache;
+
+    // GET requests currently in flight, keyed on url and session.
+    private final HashMap<String, VolleyRequest<?>> inFlightRequests = new HashMap<String, VolleyRequest<?>>();
+
+    // All API requests issued by this client that haven't finished yet, followers included.
+    private final HashSet<VolleyRequest<?>> liveRequests = new HashSet<VolleyRequest<?>>();
+
+    private final VolleyRequest.FinishListener untrackListener = new VolleyRequest.FinishListener() {
+        @Override
+        public void onFinished(VolleyRequest<?> request) {
+            untrack(request);
+        }
+    };
+
+    private boolean isRevalidationEnabled = true;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private volatile RetryStrategy retryStrategy = new ExponentialBackoffRetryStrategy(
+            DEFAULT_MAX_RETRIES, DEFAULT_RETRY_BASE_DELAY_MS, DEFAULT_RETRY_MAX_DELAY_MS);
+
+    private volatile RateLimiter rateLimiter;
+
+    // One breaker per endpoint family, keyed on the first path segment of the request url.
+    private final HashMap<String, CircuitBreaker> circuitBreakers = new HashMap<String, CircuitBreaker>();
+
+    // The recent response times of GET requests, per endpoint family.
+    private final HashMap<String, LatencyTracker> latencyTrackers = new HashMap<String, LatencyTracker>();
+
+    // Replays failed requests through the request queue once their back-off has passed. The
+    // original request keeps its scheduler slot in the meantime, so a struggling endpoint can't
+    // draw more traffic by failing.
+    private final VolleyRequest.RetryHandler retryHandler = new VolleyRequest.RetryHandler() {
+        @Override
+        public boolean retry(final VolleyRequest<?> request, PodioError error, int attempt) {
+            RetryStrategy strategy = retryStrategy;
+            CircuitBreaker circuitBreaker = request.getCircuitBreaker();
+
+            if (strategy == null || (circuitBreaker != null && circuitBreaker.isOpen())) {
+                return false;
+            }
+
+            long delay = strategy.getRetryDelayMillis(request.getRequestMethod(), error, attempt);
+
+            if (delay < 0 || request.isPastDeadline(delay)) {
+                return false;
+            }
+
+            mainHandler.postDelayed(new Runnable() {
+                @Override
+                public void run() {
+                    resend(request);
+                }
+            }, delay);
+
+            return true;
+        }
+    };
+
+    // Admits requests to the request queue by priority, within the concurrency limit of each
+    // priority class.
+    private final RequestScheduler scheduler = new RequestScheduler(new RequestScheduler.Host() {
+        @Override
+        public void execute(VolleyRequest<?> request) {
+            addToRequestQueue(request);
+        }
+    }, DEFAULT_IMMEDIATE_CONCURRENCY, DEFAULT_NORMAL_CONCURRENCY, DEFAULT_PREFETCH_CONCURRENCY);
+
+    // Makes sure there is only one session refresh in flight, parking any unauthorized requests
+    // until it's done.
+    private final TokenRefreshCoordinator refreshCoordinator = new TokenRefreshCoordinator(new TokenRefreshCoordinator.Host() {
+        @Override
+        public VolleyRequest<Void> newRefreshRequest() {
+            Uri uri = buildAuthUri();
+
+            if (uri == null) {
+                return null;
+            }
+
+            VolleyRequest<Void> request = VolleyRequest.newAuthRequest(userAgent, parseUrl(uri), parseParams(uri));
+            request.setRetryPolicy(new DefaultRetryPolicy(CLIENT_DEFAULT_TIMEOUT_MS, 0, 0));
+
+            return request;
+        }
+
+        @Override
+        public void enqueueRefresh(VolleyRequest<Void> refreshRequest) {
+            addToRefreshQueue(refreshRequest);
+        }
+
+        @Override
+        public void send(VolleyRequest<?> deferredRequest) {
+            scheduler.submit(deferredRequest);
+        }
+
+        @Override
+        public void replay(VolleyRequest<?> parkedRequest) {
+            VolleyRequest<?> replay = parkedRequest.newReplay();
+            replay.setRetryPolicy(new VolleyRetryPolicy(parkedRequest.getDeadline()));
+            addToRequestQueue(replay);
+        }
+
+        @Override
+        public void onRefreshFailed() {
+            clearRequestQueue();
+        }
+    });
 
     @Override
     public Request<Void> authenticateWithUserCredentials(String username, String password) {
@@ -156,29 +306,216 @@ public class VolleyClient implements Client {
             return null;
         }
 
-        String url = parseUrl(uri);
-        HashMap<String, String> params = parseParams(uri);
-        VolleyRequest<Void> authRequest = VolleyRequest.newAuthRequest(userAgent, url, params);
+        // Re-authenticate on a prioritized request queue, or join an already running refresh.
+        return refreshCoordinator.refresh();
+    }
 
-        // Re-authenticate on a prioritized request queue.
-        addToRefreshQueue(authRequest);
+    @Override
+    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult) {
+        return request(method, filter, item, classOfResult, Request.Priority.NORMAL);
+    }
 
-        return authRequest;
+    @Override
+    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult, Request.Priority priority) {
+        return request(method, filter, item, classOfResult, new RequestOptions().withPriority(priority));
     }
 
+    /**
+     * Issues a request with the given options. GET requests without a deadline, and without
+     * hedging, share the round trip of any identical request already in flight. Requests with a
+     * deadline or hedging are always sent on their own, as they can't wait for a round trip that
+     * is served on other terms.
+     *
+     * @see RequestOptions
+     */
     @Override
-    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult) {
+    public <T> Request<T> request(Request.Method method, Filter filter, Object item, Class<T> classOfResult, RequestOptions options) {
+        if (options == null) {
+            options = new RequestOptions();
+        }
+
         String url = filter.buildUri(scheme, authority).toString();
         String body = item != null ? JsonParser.toJson(item) : null;
+        long deadline = getDeadline(options);
+        boolean isHedged = method == Request.Method.GET && options.getHedgingPercentile() > 0;
+
+        if (method == Request.Method.GET && deadline == 0L && !isHedged) {
+            return coalesce(url, classOfResult, options.getPriority());
+        }
 
         VolleyRequest<T> request = VolleyRequest.newRequest(userAgent, method, url, body, classOfResult);
-        request.setRetryPolicy(new VolleyRetryPolicy(Session.accessToken()));
+        request.setRequestPriority(options.getPriority());
+        request.setDeadline(deadline);
+        request.setRetryPolicy(new VolleyRetryPolicy(deadline));
+        request.setRefreshCoordinator(refreshCoordinator);
+        request.setCircuitBreaker(getCircuitBreaker(url));
+        request.setRetryHandler(retryHandler);
+        request.setRateLimiter(rateLimiter);
+
+        if (method == Request.Method.GET) {
+            request.setLatencyTracker(getLatencyTracker(url));
+
+            if (isRevalidationEnabled && classOfResult != null && classOfResult != Void.class) {
+                request.setRevalidationCache(revalidationCache);
+            }
+        }
+
+        track(request);
 
-        addToRequestQueue(request);
+        if (isHedged) {
+            // The request itself is never sent, its branches are.
+            VolleyRequest<T> branch = request.newBranch();
+            branch.setRetryPolicy(new VolleyRetryPolicy(deadline));
+            send(branch);
+            scheduleHedge(request, options.getHedgingPercentile());
+        } else {
+            send(request);
+        }
 
         return request;
     }
 
+    /**
+     * Issues a GET request for the given url, unless an identical request (same url, same expected
+     * result type and same session) is already in flight. In that case a follower request is
+     * attached to the in-flight request and returned instead, sharing its network round trip and
+     * its parsed result.
+     *
+     * @param url
+     *         The url to GET.
+     * @param classOfResult
+     *         The type to parse the response into.
+     * @param priority
+     *         The priority to serve the request with. If an identical request is already in
+     *         flight, it's upgraded to this priority should it be more urgent.
+     *
+     * @return A request which the caller can attach their listeners to.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Request<T> coalesce(String url, Class<T> classOfResult, Request.Priority priority) {
+        final String key = url + '\n' + Session.accessToken();
+        VolleyRequest<T> request;
+
+        synchronized (inFlightRequests) {
+            VolleyRequest<?> inFlightRequest = inFlightRequests.get(key);
+
+            if (inFlightRequest != null && inFlightRequest.getClassOfResult() == classOfResult) {
+                VolleyRequest<T> follower = VolleyRequest.newRequest(userAgent, Request.Method.GET, url, null, classOfResult);
+                // Track the follower before attaching it, as it may finish right away.
+                track(follower);
+
+                if (((VolleyRequest<T>) inFlightRequest).attachFollower(follower)) {
+                    return follower;
+                }
+
+                untrack(follower);
+            }
+
+            request = VolleyRequest.newRequest(userAgent, Request.Method.GET, url, null, classOfResult);
+            request.setRequestPriority(priority);
+            request.setRetryPolicy(new VolleyRetryPolicy());
+            request.setRefreshCoordinator(refreshCoordinator);
+            request.setCircuitBreaker(getCircuitBreaker(url));
+            request.setRetryHandler(retryHandler);
+            request.setRateLimiter(rateLimiter);
+            request.setLatencyTracker(getLatencyTracker(url));
+
+            if (isRevalidationEnabled && classOfResult != null && classOfResult != Void.class) {
+                request.setRevalidationCache(revalidationCache);
+            }
+
+            request.addFinishListener(new VolleyRequest.FinishListener() {
+                @Override
+                public void onFinished(VolleyRequest<?> finishedRequest) {
+                    synchronized (inFlightRequests) {
+                        if (inFlightRequests.get(key) == finishedRequest) {
+                            inFlightRequests.remove(key);
+                        }
+                    }
+                }
+            });
+
+            inFlightRequests.put(key, request);
+            track(request);
+        }
+
+        // Enqueue outside of the lock as canceling requests on the queue will call back into the
+        // finish listener above.
+        send(request);
+
+        return request;
+    }
+
+    /**
+     * Refreshes the current session, or joins an already running refresh. This method is called by
+     * the {@link SessionManager} ahead of the session expiry.
+     */
+    @Override
+    public void refreshSession() {
+        refreshCoordinator.refresh();
+    }
+
+    /**
+     * Sends a request, taking the state of the session into account. A request issued after the
+     * session has expired is held back until the session has been refreshed, as it would only
+     * fail authentication otherwise. A request issued shortly before the session expires is sent
+     * right away, while a refresh is started in the background.
+     * <p/>
+     * Before any of that, the request must fit in the rate limit budget and its endpoint must not
+     * be failing fast. Neither may its deadline pass while it's held back.
+     *
+     * @param request
+     *         The request to send.
+     */
+    private void send(final VolleyRequest<?> request) {
+        if (request.isPastDeadline()) {
+            reject(request, new NoResponseError("The deadline of the request passed before it was sent"));
+            return;
+        }
+
+        RateLimiter rateLimiter = this.rateLimiter;
+
+        if (rateLimiter != null) {
+            Request.Priority priority = request.getRequestPriority();
+            long delay = rateLimiter.acquire(priority);
+
+            if (delay > getMaxRateLimitDelay(priority) || request.isPastDeadline(delay)) {
+                reject(request, new RateLimitError("The request would exceed the rate limit and was not sent", delay));
+                return;
+            }
+
+            if (delay > 0) {
+                mainHandler.postDelayed(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!request.isCanceled()) {
+                            send(request);
+                        }
+                    }
+                }, delay);
+                return;
+            }
+        }
+
+        CircuitBreaker circuitBreaker = request.getCircuitBreaker();
+
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            reject(request, new CircuitOpenError("The \"" + circuitBreaker.getName()
+                    + "\" endpoints are failing, the request was not sent"));
+            return;
+        }
+
+        if (SessionManager.isExpired() && refreshCoordinator.defer(request)) {
+            return;
+        }
+
+        if (SessionManager.isAboutToExpire()) {
+            refreshCoordinator.refresh();
+        }
+
+        scheduler.submit(request);
+    }
+
     public synchronized void setup(Context context, String scheme, String authority, String clientId, String clientSecret, String userAgent, SSLSocketFactory sslSocketFactory) {
         this.scheme = scheme;
         this.authority = authority;
@@ -186,50 +523,146 @@ public class VolleyClient implements Client {
         this.clientSecret = clientSecret;
         this.userAgent = userAgent;
 
-        // Ensure the expected request queues exists.
-        if (sslSocketFactory == null) {
-            if (volleyRequestQueue == null) {
-                volleyRequestQueue = Volley.newRequestQueue(context);
-                volleyRequestQueue.start();
-            }
+        // Ensure the expected request queue exists.
+        volleyRequestQueue = Dispatcher.getRequestQueue(context, sslSocketFactory);
 
-            if (volleyRefreshQueue == null) {
-                volleyRefreshQueue = Volley.newRequestQueue(context);
-                volleyRefreshQueue.start();
-            }
-        } else if (volleyRequestQueue == null || volleyRefreshQueue == null) {
-            HurlStack stack = new HurlStack(null, sslSocketFactory);
+        // Never occupy all network threads with normal priority requests.
+        int networkThreads = Dispatcher.getNetworkThreads();
+        scheduler.setLimit(Request.Priority.IMMEDIATE, networkThreads);
+        scheduler.setLimit(Request.Priority.NORMAL, networkThreads - 1);
+        scheduler.setLimit(Request.Priority.PREFETCH, DEFAULT_PREFETCH_CONCURRENCY);
 
-            if (volleyRequestQueue == null) {
-                volleyRequestQueue = Volley.newRequestQueue(context, stack);
-                volleyRequestQueue.start();
-            }
-
-            if (volleyRefreshQueue == null) {
-                volleyRefreshQueue = Volley.newRequestQueue(context, stack);
-                volleyRefreshQueue.start();
-            }
+        // The revalidation cache is intentionally persisted across setups (and app launches) as
+        // its entries are keyed on the access token they were fetched with.
+        if (revalidationCache == null) {
+            File directory = new File(context.getCacheDir(), REVALIDATION_CACHE_DIRECTORY);
+            revalidationCache = new RevalidationCache(directory, REVALIDATION_CACHE_MEMORY_ENTRIES, REVALIDATION_CACHE_DISK_BYTES);
         }
 
-        // Clear out any and all queued requests.
+        // Clear out any and all queued and parked requests.
         clearRequestQueue();
         clearRefreshQueue();
+        refreshCoordinator.reset();
+
+        // API responses are never put in the Volley cache, hence there is nothing to clear there.
+        // The cache belongs to the images sharing the request queue.
+    }
+
+    /**
+     * Cancels all unfinished requests issued by this client with the given tag, including requests
+     * that are still waiting to be sent.
+     *
+     * @param tag
+     *         The tag of the requests to cancel. Tags are compared by identity.
+     *
+     * @see Request#withTag(Object)
+     */
+    public void cancelAll(Object tag) {
+        if (tag == null) {
+            return;
+        }
+
+        ArrayList<VolleyRequest<?>> requests = new ArrayList<VolleyRequest<?>>();
+
+        synchronized (liveRequests) {
+            for (VolleyRequest<?> request : liveRequests) {
+                if (request.getTag() == tag) {
+                    requests.add(request);
+                }
+            }
+        }
+
+        // Cancel outside of the lock, as canceling a request will call back into untrack(...).
+        for (VolleyRequest<?> request : requests) {
+            request.cancel();
+        }
+    }
+
+    /**
+     * Sets the maximum number of requests of the given priority class that may execute
+     * concurrently. Requests beyond the limit are held back until a slot frees up.
+     *
+     * @param priority
+     *         The priority class to limit.
+     * @param limit
+     *         The maximum number of concurrent requests, at least one.
+     */
+    public void setConcurrencyLimit(Request.Priority priority, int limit) {
+        scheduler.setLimit(priority, limit);
+    }
 
-        // Clear out any cached content in the request queues.
-        Cache requestCache = volleyRequestQueue.getCache();
-        if (requestCache != null) {
-            requestCache.clear();
+    /**
+     * Enables or disables HTTP revalidation (conditional GET requests) for all subsequent GET
+     * requests issued by this client. Revalidation is enabled by default.
+     *
+     * @param isEnabled
+     *         Boolean true to enable revalidation, boolean false to disable it.
+     */
+    public void setRevalidationEnabled(boolean isEnabled) {
+        this.isRevalidationEnabled = isEnabled;
+    }
+
+    /**
+     * Removes all cached responses from the revalidation cache. Callers will typically want to do
+     * this when the user logs out. Note that this method may perform file system operations on
+     * the calling thread.
+     */
+    public void clearRevalidationCache() {
+        if (revalidationCache != null) {
+            revalidationCache.clear();
         }
+    }
 
-        Cache priorityCache = volleyRefreshQueue.getCache();
-        if (priorityCache != null) {
-            priorityCache.clear();
+    /**
+     * Sets the strategy deciding whether, and when, failed requests are sent again. By default
+     * idempotent requests failing for transient reasons are retried twice, with an exponential
+     * and jittered back-off.
+     *
+     * @param retryStrategy
+     *         The strategy to use, or null to never retry.
+     */
+    public void setRetryStrategy(RetryStrategy retryStrategy) {
+        this.retryStrategy = retryStrategy;
+    }
+
+    /**
+     * Sets the rate limiter guarding the requests of this client. Requests are held back while
+     * the rate limit budget is exhausted, and failed with a {@link RateLimitError} should the wait
+     * be unreasonably long.
+     *
+     * @param rateLimiter
+     *         The rate limiter, possibly shared with other clients, or null to not limit.
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    protected RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Returns the circuit breakers of all endpoint families this client has sent requests to, for
+     * monitoring purposes. The returned map is a snapshot, the breakers themselves are live.
+     *
+     * @return The circuit breakers keyed on endpoint family, e.g. "item" or "conversation".
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        synchronized (circuitBreakers) {
+            return new HashMap<String, CircuitBreaker>(circuitBreakers);
         }
     }
 
+    /**
+     * @return The number of session refreshes this client has issued so far.
+     */
+    int getRefreshCount() {
+        return refreshCoordinator.getRefreshCount();
+    }
+
     protected synchronized void addToRefreshQueue(com.android.volley.Request<?> request) {
         if (request != null) {
-            volleyRefreshQueue.add(request);
+            volleyRequestQueue.add(request);
         }
     }
 
@@ -267,23 +700,207 @@ public class VolleyClient implements Client {
     }
 
     protected synchronized void clearRefreshQueue() {
-        volleyRefreshQueue.cancelAll(new RequestFilter() {
+        volleyRequestQueue.cancelAll(new RequestFilter() {
             @Override
             public boolean apply(com.android.volley.Request<?> request) {
-                return true;
+                return request instanceof VolleyRequest && ((VolleyRequest<?>) request).isAuthRequest();
             }
         });
     }
 
-    protected synchronized void clearRequestQueue() {
-        volleyRequestQueue.cancelAll(new RequestFilter() {
+    protected void clearRequestQueue() {
+        // Cancel the requests waiting for a slot first, so they aren't admitted to the request
+        // queue while we're clearing it.
+        scheduler.cancelPending();
+
+        // Canceling a request may admit another one to the queue, hence we can't cancel while
+        // Volley is iterating over its requests.
+        final ArrayList<com.android.volley.Request<?>> requests = new ArrayList<com.android.volley.Request<?>>();
+
+        synchronized (this) {
+            volleyRequestQueue.cancelAll(new RequestFilter() {
+                @Override
+                public boolean apply(com.android.volley.Request<?> request) {
+                    // The queue is shared with images and session refreshes, leave those be.
+                    if (request instanceof VolleyRequest && !((VolleyRequest<?>) request).isAuthRequest()) {
+                        requests.add(request);
+                    }
+
+                    return false;
+                }
+            });
+        }
+
+        // Coalesced followers never make it to the request queue, and parked requests are no
+        // longer in it.
+        synchronized (liveRequests) {
+            requests.addAll(liveRequests);
+        }
+
+        for (com.android.volley.Request<?> request : requests) {
+            request.cancel();
+        }
+    }
+
+    /**
+     * Returns the circuit breaker guarding the endpoint family of the given url, creating it if
+     * needed.
+     */
+    private CircuitBreaker getCircuitBreaker(String url) {
+        String family = getEndpointFamily(url);
+
+        synchronized (circuitBreakers) {
+            CircuitBreaker circuitBreaker = circuitBreakers.get(family);
+
+            if (circuitBreaker == null) {
+                circuitBreaker = new CircuitBreaker(family, CIRCUIT_BREAKER_FAILURE_THRESHOLD, CIRCUIT_BREAKER_OPEN_DURATION_MS);
+                circuitBreakers.put(family, circuitBreaker);
+            }
+
+            return circuitBreaker;
+        }
+    }
+
+    /**
+     * Returns the response time tracker of the endpoint family of the given url, creating it if
+     * needed.
+     */
+    private LatencyTracker getLatencyTracker(String url) {
+        String family = getEndpointFamily(url);
+
+        synchronized (latencyTrackers) {
+            LatencyTracker latencyTracker = latencyTrackers.get(family);
+
+            if (latencyTracker == null) {
+                latencyTracker = new LatencyTracker(LATENCY_SAMPLES);
+                latencyTrackers.put(family, latencyTracker);
+            }
+
+            return latencyTracker;
+        }
+    }
+
+    /**
+     * Sends a second branch of the given request, should it still be unanswered once the given
+     * percentile of the recent response times of its endpoint has passed.
+     */
+    private void scheduleHedge(final VolleyRequest<?> request, int percentile) {
+        LatencyTracker latencyTracker = request.getLatencyTracker();
+        long delay = latencyTracker != null ?
+                latencyTracker.getPercentile(percentile, DEFAULT_HEDGING_DELAY_MS) :
+                DEFAULT_HEDGING_DELAY_MS;
+
+        mainHandler.postDelayed(new Runnable() {
             @Override
-            public boolean apply(com.android.volley.Request<?> request) {
-                return true;
+            public void run() {
+                hedge(request);
+            }
+        }, delay);
+    }
+
+    /**
+     * Sends the second branch of an unanswered hedged request. A hedge is extra load on the API,
+     * so it's only sent while the endpoint is healthy and there is budget to spare. The hedge is
+     * never retried, the first branch is. This method is executed on the main thread.
+     */
+    private void hedge(VolleyRequest<?> request) {
+        if (request.isParsed() || request.isCanceled() || request.isPastDeadline() || SessionManager.isExpired()) {
+            return;
+        }
+
+        RateLimiter rateLimiter = this.rateLimiter;
+
+        // Hedges count as background traffic, they must not eat into the interactive budget.
+        if (rateLimiter != null && rateLimiter.acquire(Request.Priority.PREFETCH) > 0) {
+            return;
+        }
+
+        CircuitBreaker circuitBreaker = request.getCircuitBreaker();
+
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            return;
+        }
+
+        VolleyRequest<?> hedge = request.newBranch();
+
+        if (hedge != null) {
+            hedge.setRetryHandler(null);
+            hedge.setRetryPolicy(new VolleyRetryPolicy(request.getDeadline()));
+            addToRequestQueue(hedge);
+        }
+    }
+
+    /**
+     * Fails a request that is never to be sent. The error is delivered on the main thread, after
+     * the caller has had a chance to add their listeners.
+     */
+    private void reject(final VolleyRequest<?> request, final PodioError error) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!request.isCanceled()) {
+                    request.failParked(error);
+                }
             }
         });
     }
 
+    /**
+     * @return The deadline of a request issued now with the given options, in {@link
+     * SystemClock#elapsedRealtime()} milliseconds, or zero if there is no deadline.
+     */
+    static long getDeadline(RequestOptions options) {
+        long deadlineMillis = options != null ? options.getDeadlineMillis() : 0L;
+        return deadlineMillis > 0L ? SystemClock.elapsedRealtime() + deadlineMillis : 0L;
+    }
+
+    private static String getEndpointFamily(String url) {
+        List<String> segments = Uri.parse(url).getPathSegments();
+        return segments.isEmpty() ? "" : segments.get(0);
+    }
+
+    private static long getMaxRateLimitDelay(Request.Priority priority) {
+        return priority == Request.Priority.PREFETCH ?
+                MAX_BACKGROUND_RATE_LIMIT_DELAY_MS :
+                MAX_INTERACTIVE_RATE_LIMIT_DELAY_MS;
+    }
+
+    /**
+     * Sends a failed request once more, unless it has been canceled or its endpoint has started
+     * failing fast in the meantime. This method is executed on the main thread.
+     */
+    private void resend(VolleyRequest<?> request) {
+        if (request.isCanceled()) {
+            return;
+        }
+
+        CircuitBreaker circuitBreaker = request.getCircuitBreaker();
+
+        if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+            // Deliver the error of the last attempt.
+            request.failParked(null);
+            return;
+        }
+
+        VolleyRequest<?> replay = request.newReplay();
+        replay.setRetryPolicy(new VolleyRetryPolicy(request.getDeadline()));
+        addToRequestQueue(replay);
+    }
+
+    private void track(VolleyRequest<?> request) {
+        synchronized (liveRequests) {
+            liveRequests.add(request);
+        }
+
+        request.addFinishListener(untrackListener);
+    }
+
+    private void untrack(VolleyRequest<?> request) {
+        synchronized (liveRequests) {
+            liveRequests.remove(request);
+        }
+    }
+
     protected HashMap<String, String> parseParams(Uri uri) {
         Set<String> keys = uri.getQueryParameterNames();
         HashMap<String, String> params = new HashMap<String, String>();
@@ -1,8 +1,13 @@
 
 package com.podio.sdk.volley;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
 import com.android.volley.AuthFailureError;
 import com.android.volley.Cache.Entry;
+import com.android.volley.Network;
 import com.android.volley.NetworkResponse;
 import com.android.volley.NoConnectionError;
 import com.android.volley.ParseError;
@@ -14,20 +19,58 @@ import com.android.volley.toolbox.HttpHeaderParser;
 import com.google.gson.JsonSyntaxException;
 import com.podio.sdk.ApiError;
 import com.podio.sdk.ConnectionError;
+import com.podio.sdk.Metrics;
 import com.podio.sdk.NetworkError;
 import com.podio.sdk.NoResponseError;
 import com.podio.sdk.PodioError;
+import com.podio.sdk.RateLimiter;
+import com.podio.sdk.RequestMetrics;
 import com.podio.sdk.Session;
 import com.podio.sdk.internal.Utils;
 import com.podio.sdk.json.JsonParser;
 
+import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Request<T> {
+public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Request<T>, MeteredHttpStack.Observer {
+
+    /**
+     * Callback interface for when the transport of a request has finished, either because a
+     * response (or error) has been parsed, or because the request was canceled. The callback is
+     * called exactly once per request and never on the main thread for parsed responses.
+     */
+    interface FinishListener {
+
+        void onFinished(VolleyRequest<?> request);
+
+    }
+
+    /**
+     * Callback interface for sending a failed request once more. The callback is executed on the
+     * worker thread.
+     */
+    interface RetryHandler {
+
+        /**
+         * @param request
+         *         The failed request.
+         * @param error
+         *         The parsed error the request failed with.
+         * @param attempt
+         *         The number of attempts made so far, starting at one.
+         *
+         * @return Boolean true if the request will be replayed, boolean false if it should fail.
+         */
+        boolean retry(VolleyRequest<?> request, PodioError error, int attempt);
+
+    }
 
     public static ErrorListener addGlobalErrorListener(ErrorListener errorListener) {
         return VolleyCallbackManager.addGlobalErrorListener(errorListener);
@@ -88,6 +131,10 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         }
     }
 
+    // The Podio API has historically signaled an exceeded rate limit with a 420 status.
+    private static final int HTTP_ENHANCE_YOUR_CALM = 420;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
     private final VolleyCallbackManager<T> callbackManager;
 
     private final Class<T> classOfResult;
@@ -99,9 +146,52 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
     private T result;
     private PodioError error;
     private boolean isDone;
+    private volatile boolean isParsed;
     private boolean isAuthRequest;
     private boolean hasSessionChanged;
 
+    private RevalidationCache revalidationCache;
+    private String revalidationKey;
+
+    private final ArrayList<VolleyRequest<T>> followers;
+    private final ArrayList<FinishListener> finishListeners;
+    private boolean isFinished;
+    private VolleyRequest<T> leader;
+    private volatile boolean isCallerCanceled;
+
+    private com.podio.sdk.Request.Priority priority;
+
+    private TokenRefreshCoordinator refreshCoordinator;
+    private String sentAccessToken;
+    private volatile boolean isParked;
+    private VolleyRequest<T> origin;
+    private volatile VolleyRequest<T> replay;
+
+    private CircuitBreaker circuitBreaker;
+    private RetryHandler retryHandler;
+    private int attempt;
+    private RateLimiter rateLimiter;
+
+    private long deadline;
+    private LatencyTracker latencyTracker;
+    private long sentAt;
+
+    // A hedged request is never sent itself, its branches are. Guarded by the followers lock.
+    private ArrayList<VolleyRequest<T>> branches;
+    private int openBranchCount;
+    private boolean isPublished;
+    private boolean isDispatched;
+
+    // The phases of the transport, and the transport that published the result.
+    private final long createdAt;
+    private volatile long headersAt;
+    private long parseStartedAt;
+    private long parsedAt;
+    private int statusCode;
+    private long bytesReceived;
+    private VolleyRequest<T> transport;
+    private boolean isMeasured;
+
     protected VolleyRequest(int method, String url, Class<T> resultType, boolean isAuthRequest) {
         super(method, url, null);
         setShouldCache(false);
@@ -115,11 +205,21 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
 
         this.hasSessionChanged = false;
         this.isAuthRequest = isAuthRequest;
+
+        this.followers = new ArrayList<VolleyRequest<T>>();
+        this.finishListeners = new ArrayList<FinishListener>();
+        this.isFinished = false;
+        this.isCallerCanceled = false;
+        this.priority = com.podio.sdk.Request.Priority.NORMAL;
+        this.isParked = false;
+        this.attempt = 1;
+        this.deadline = 0L;
+        this.createdAt = SystemClock.elapsedRealtime();
     }
 
     @Override
     public VolleyRequest<T> withResultListener(ResultListener<T> resultListener) {
-        callbackManager.addResultListener(resultListener, isDone, result);
+        callbackManager.addResultListener(resultListener, isDone && error == null, result);
         return this;
     }
 
@@ -135,6 +235,12 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         return this;
     }
 
+    @Override
+    public VolleyRequest<T> withTag(Object tag) {
+        setTag(tag);
+        return this;
+    }
+
     @Override
     public byte[] getBody() throws AuthFailureError {
         return Utils.notEmpty(body) ? body : super.getBody();
@@ -145,25 +251,68 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         return contentType;
     }
 
+    @Override
+    public com.android.volley.Request.Priority getPriority() {
+        if (isAuthRequest) {
+            // Session refreshes share the request queue with all other traffic. Everything else
+            // is likely waiting for them.
+            return com.android.volley.Request.Priority.IMMEDIATE;
+        }
+
+        switch (priority) {
+            case IMMEDIATE:
+                return com.android.volley.Request.Priority.IMMEDIATE;
+            case PREFETCH:
+                return com.android.volley.Request.Priority.LOW;
+            default:
+                return com.android.volley.Request.Priority.NORMAL;
+        }
+    }
+
     @Override
     public Map<String, String> getHeaders() throws AuthFailureError {
         String accessToken = Session.accessToken();
 
         if (!isAuthRequest && Utils.notEmpty(accessToken)) {
             headers.put("Authorization", "Bearer " + accessToken);
+            sentAccessToken = accessToken;
         } else {
             headers.remove("Authorization");
+            sentAccessToken = null;
         }
 
+        addRevalidationHeaders(accessToken);
+
+        // The headers are fetched right before the request hits the network.
+        sentAt = SystemClock.elapsedRealtime();
+
         return headers;
     }
 
+    @Override
+    public void onHeadersReceived() {
+        headersAt = SystemClock.elapsedRealtime();
+    }
+
     @Override
     public synchronized T waitForResult(long maxSeconds) throws PodioError {
         // This is still awkward as we might end up blocking the delivery of
         // a client side error (see
+        long timeout = TimeUnit.SECONDS.toMillis(Math.max(maxSeconds, 0));
+        long deadline = System.currentTimeMillis() + timeout;
+
         try {
-            wait(TimeUnit.SECONDS.toMillis(Math.max(maxSeconds, 0)));
+            // Wait in a loop, as a thread may wake up without being notified. A zero timeout
+            // means waiting until the request is parsed.
+            while (!isParsed && !isCallerCanceled) {
+                long remaining = timeout > 0 ? deadline - System.currentTimeMillis() : 0;
+
+                if (timeout > 0 && remaining <= 0) {
+                    break;
+                }
+
+                wait(remaining);
+            }
         } catch (InterruptedException e) {
             callbackManager.deliverError(e);
         }
@@ -175,26 +324,63 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         return result;
     }
 
+    /**
+     * Cancels this request and releases its listeners. The network round trip of a request that
+     * is shared with coalesced followers is only canceled once the followers are canceled as
+     * well, as they're still waiting for the response.
+     *
+     * @see com.podio.sdk.Request#cancel()
+     */
+    @Override
+    public void cancel() {
+        isCallerCanceled = true;
+        callbackManager.clear();
+
+        VolleyRequest<T> leader = this.leader;
+        if (leader != null) {
+            leader.detachFollower(this);
+        }
+
+        boolean isShared;
+
+        synchronized (followers) {
+            isShared = !isFinished && !followers.isEmpty();
+
+            if (!isShared) {
+                // Cancel while holding the lock, so no new followers can attach to a request
+                // that is about to be abandoned.
+                super.cancel();
+            }
+        }
+
+        if (!isShared) {
+            releaseTransport();
+        } else {
+            // Release anyone waiting for this particular request.
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
     @Override
     public void deliverError(VolleyError error) {
         // This method is executed on the main thread. Extra care should be
         // taken on what is done here.
-        isDone = true;
-        callbackManager.deliverError(this.error);
+        if (isParked) {
+            // The request is waiting for the session to be refreshed. It will be replayed, or
+            // failed, by the refresh coordinator.
+            return;
+        }
+
+        dispatchError();
     }
 
     @Override
     protected void deliverResponse(T result) {
         // This method is executed on the main thread. Extra care should be
         // taken on what is done here.
-
-        isDone = true;
-
-        if (hasSessionChanged) {
-            callbackManager.deliverSession();
-        }
-
-        callbackManager.deliverResult(result);
+        dispatchResult(result);
     }
 
     @Override
@@ -211,6 +397,13 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
     protected VolleyError parseNetworkError(VolleyError volleyError) {
         // This method is executed on the worker thread. It's "safe" to perform
         // JSON parsing here.
+        if (isCanceled()) {
+            // Nobody is waiting for the error any more.
+            return volleyError;
+        }
+
+        onParseStarted(volleyError.networkResponse);
+        updateRateLimit(volleyError.networkResponse);
 
         if (volleyError instanceof NoConnectionError) {
             error = new ConnectionError(volleyError);
@@ -233,10 +426,40 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
             }
         }
 
-        synchronized (this) {
-            notifyAll();
+        if (circuitBreaker != null) {
+            if (isServiceFailure(volleyError)) {
+                circuitBreaker.recordFailure();
+            } else {
+                // The server did respond, so the endpoint is alive.
+                circuitBreaker.recordSuccess();
+            }
+        }
+
+        if (refreshCoordinator != null && isUnauthorized(volleyError)) {
+            // Mark the request as parked before handing it over, as the coordinator may replay
+            // it right away.
+            isParked = true;
+
+            if (refreshCoordinator.park(this, sentAccessToken)) {
+                return volleyError;
+            }
+
+            isParked = false;
+        }
+
+        if (retryHandler != null) {
+            // Parked for the same reason as above, the retry may be sent right away.
+            isParked = true;
+
+            if (retryHandler.retry(this, error, attempt)) {
+                return volleyError;
+            }
+
+            isParked = false;
         }
 
+        onParsed();
+
         return volleyError;
     }
 
@@ -259,13 +482,49 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         // JSON parsing here.
         Response<T> response;
 
+        if (isCanceled()) {
+            // Nobody is waiting for the result any more, don't waste any time parsing it. Volley
+            // won't deliver anything for a canceled request.
+            return Response.error(new VolleyError("The request was canceled"));
+        }
+
+        onParseStarted(networkResponse);
+
+        if (circuitBreaker != null) {
+            circuitBreaker.recordSuccess();
+        }
+
+        if (latencyTracker != null && sentAt > 0L) {
+            latencyTracker.record(SystemClock.elapsedRealtime() - sentAt);
+        }
+
+        updateRateLimit(networkResponse);
+
         try {
             Entry cacheHeaders = HttpHeaderParser.parseCacheHeaders(networkResponse);
+
+            if (networkResponse.statusCode == HttpURLConnection.HTTP_NOT_MODIFIED && revalidationKey != null) {
+                // The server confirmed that our cached copy is still valid. Serve the already
+                // parsed result instead of parsing the (empty) response.
+                result = revalidationCache.getResult(revalidationKey, classOfResult);
+
+                if (result != null) {
+                    response = Response.success(result, cacheHeaders);
+                } else {
+                    revalidationCache.remove(revalidationKey);
+                    error = new PodioError("The cached response for a \"304 Not Modified\" status is no longer available");
+                    response = Response.error(new ParseError(networkResponse));
+                }
+
+                onParsed();
+
+                return response;
+            }
+
             String charSet = HttpHeaderParser.parseCharset(networkResponse.headers);
-            String json = new String(networkResponse.data, charSet);
 
             if (isAuthRequest) {
-                Session.set(json);
+                Session.set(new String(networkResponse.data, charSet));
                 hasSessionChanged = true;
                 result = null;
                 response = Response.success(null, cacheHeaders);
@@ -273,22 +532,368 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
                 result = null;
                 response = Response.success(null, cacheHeaders);
             } else {
-                result = JsonParser.fromJson(json, classOfResult);
+                // Decode the bytes straight into the object graph. This spares us an intermediate
+                // String copy of the (potentially very large) response body.
+                result = JsonParser.fromJson(new ByteArrayInputStream(networkResponse.data), charSet, classOfResult);
                 response = Response.success(result, cacheHeaders);
+
+                if (revalidationKey != null) {
+                    revalidationCache.put(revalidationKey,
+                            getHeader(networkResponse.headers, "ETag"),
+                            getHeader(networkResponse.headers, "Last-Modified"),
+                            networkResponse.data, charSet, result);
+                }
             }
         } catch (UnsupportedEncodingException e) {
             // The provided response JSON is provided with an unknown char-set.
             result = null;
+            error = new PodioError(e);
             response = Response.error(new ParseError(e));
         }
 
-        synchronized (this) {
-            notifyAll();
-        }
+        onParsed();
 
         return response;
     }
 
+    /**
+     * Attaches a follower to this request. A follower is a request that is never sent over the
+     * network itself, but is served the very same parsed result (or error) as this request. This
+     * enables multiple callers to share a single round trip for identical requests.
+     *
+     * @param follower
+     *         The request to serve along with this one.
+     *
+     * @return Boolean true if the follower was attached, boolean false if this request has already
+     * finished and can't serve any more followers.
+     */
+    boolean attachFollower(VolleyRequest<T> follower) {
+        synchronized (followers) {
+            if (isFinished || isCanceled() || follower == null) {
+                return false;
+            }
+
+            followers.add(follower);
+            follower.leader = this;
+            return true;
+        }
+    }
+
+    /**
+     * Performs this request on the calling thread, bypassing the request queue as well as the
+     * delivery on the main thread. Once this method returns, any listener added to the request is
+     * called immediately, on the thread adding it. A changed session is still announced to the
+     * session listeners on the main thread.
+     *
+     * @param network
+     *         The network to perform the request on.
+     *
+     * @return Boolean true if the request failed authentication, boolean false otherwise.
+     */
+    boolean performSynchronously(Network network) {
+        boolean isUnauthorized = false;
+
+        try {
+            parseNetworkResponse(network.performRequest(this));
+        } catch (VolleyError volleyError) {
+            isUnauthorized = isUnauthorized(volleyError);
+            parseNetworkError(volleyError);
+        } catch (RuntimeException e) {
+            // The response couldn't be parsed into the requested type.
+            result = null;
+            error = new PodioError(e);
+            onParsed();
+        }
+
+        isDone = true;
+
+        if (hasSessionChanged) {
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    callbackManager.deliverSession();
+                }
+            });
+        }
+
+        return isUnauthorized;
+    }
+
+    boolean isAuthRequest() {
+        return isAuthRequest;
+    }
+
+    Class<T> getClassOfResult() {
+        return classOfResult;
+    }
+
+    /**
+     * Fails a request that has been parked, or deferred, by the refresh coordinator, or that has
+     * been rejected before it was ever sent. Parked requests deliver their original error to the
+     * callbacks, deferred and rejected requests (which never got a response) deliver the given
+     * error. This method is executed on the main thread.
+     *
+     * @param refreshError
+     *         The error that caused the session refresh to fail.
+     */
+    void failParked(PodioError refreshError) {
+        if (isCanceled()) {
+            return;
+        }
+
+        if (error == null) {
+            error = refreshError;
+        }
+
+        onParsed();
+        dispatchError();
+    }
+
+    /**
+     * Creates a copy of this request which, once sent, will publish its result (or error) through
+     * this request. The replay is sent with whatever access token is current at the time of
+     * sending. A replay is never parked again should it fail authentication.
+     *
+     * @return A new, not yet enqueued, request.
+     */
+    VolleyRequest<T> newReplay() {
+        VolleyRequest<T> replay = copy();
+        replay.attempt = attempt + 1;
+
+        this.replay = replay;
+
+        if (isCanceled()) {
+            replay.cancel();
+        }
+
+        return replay;
+    }
+
+    /**
+     * Creates a branch of this request. A request with branches is never sent itself, its
+     * branches are sent in its place and it publishes the first successful response of any of
+     * them. Should all branches fail, the error of the last one to fail is published. Unlike a
+     * replay, a branch may be parked should it fail authentication.
+     *
+     * @return A new, not yet enqueued, request, or null if this request has already been answered
+     * or canceled.
+     */
+    VolleyRequest<T> newBranch() {
+        VolleyRequest<T> branch = copy();
+        branch.refreshCoordinator = refreshCoordinator;
+
+        synchronized (followers) {
+            if (isPublished || isFinished || isCanceled()) {
+                return null;
+            }
+
+            if (branches == null) {
+                branches = new ArrayList<VolleyRequest<T>>();
+            }
+
+            branches.add(branch);
+            openBranchCount++;
+        }
+
+        return branch;
+    }
+
+    /**
+     * Enables this request to be parked, and later replayed, through the given coordinator should
+     * it fail authentication.
+     *
+     * @param refreshCoordinator
+     *         The coordinator that manages the session refreshes.
+     */
+    void setRefreshCoordinator(TokenRefreshCoordinator refreshCoordinator) {
+        this.refreshCoordinator = refreshCoordinator;
+    }
+
+    /**
+     * Enables the outcome of this request to be recorded by the given circuit breaker.
+     *
+     * @param circuitBreaker
+     *         The breaker guarding the endpoint of this request, or null.
+     */
+    void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Enables this request to be sent again, through the given handler, should it fail.
+     *
+     * @param retryHandler
+     *         The handler deciding on and scheduling the retries, or null to never retry.
+     */
+    void setRetryHandler(RetryHandler retryHandler) {
+        this.retryHandler = retryHandler;
+    }
+
+    /**
+     * Enables the rate limit headers of the response to this request to update the budget of the
+     * given rate limiter.
+     *
+     * @param rateLimiter
+     *         The rate limiter guarding this request, or null.
+     */
+    void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Sets the point in time after which nobody is waiting for this request any more.
+     *
+     * @param deadline
+     *         The deadline, in {@link SystemClock#elapsedRealtime()} milliseconds, or zero for no
+     *         deadline.
+     */
+    void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    long getDeadline() {
+        return deadline;
+    }
+
+    boolean isPastDeadline() {
+        return isPastDeadline(0L);
+    }
+
+    /**
+     * @param delay
+     *         A delay, in milliseconds, from now.
+     *
+     * @return Boolean true if the deadline of this request has passed once the delay has, boolean
+     * false otherwise or if there is no deadline.
+     */
+    boolean isPastDeadline(long delay) {
+        return deadline > 0L && SystemClock.elapsedRealtime() + delay >= deadline;
+    }
+
+    /**
+     * Enables the response time of this request to be recorded by the given tracker.
+     *
+     * @param latencyTracker
+     *         The tracker of the endpoint of this request, or null.
+     */
+    void setLatencyTracker(LatencyTracker latencyTracker) {
+        this.latencyTracker = latencyTracker;
+    }
+
+    LatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    /**
+     * @return Boolean true if the result (or error) of this request has been parsed, boolean false
+     * otherwise.
+     */
+    boolean isParsed() {
+        return isParsed;
+    }
+
+    /**
+     * Fails this request without sending it. Like {@link #performSynchronously(Network)} this
+     * publishes the error on the calling thread, any error listener added afterwards is called
+     * right away.
+     *
+     * @param rejectError
+     *         The reason the request wasn't sent.
+     */
+    void rejectSynchronously(PodioError rejectError) {
+        error = rejectError;
+        onParsed();
+        isDone = true;
+    }
+
+    /**
+     * Reports the measurements of the transport that published the result of this request, once.
+     * Replays report through the request they were created for, and followers don't report at all
+     * as they never hit the network themselves.
+     */
+    void reportMetrics() {
+        if (isMeasured || origin != null || leader != null) {
+            return;
+        }
+
+        isMeasured = true;
+        VolleyRequest<T> transport = this.transport != null ? this.transport : this;
+
+        Metrics.report(new RequestMetrics.Builder(RequestMetrics.Source.API, getRequestMethod().name(), RequestMetrics.toEndpointTemplate(getUrl()))
+                .withStatusCode(transport.statusCode)
+                .withBytesSent(body != null ? body.length : 0L)
+                .withBytesReceived(transport.bytesReceived)
+                .withRetryCount(transport.attempt - 1)
+                .withSuccess(error == null)
+                .withPhase(RequestMetrics.Phase.QUEUE, transport.createdAt, transport.sentAt)
+                .withPhase(RequestMetrics.Phase.FIRST_BYTE, transport.sentAt, transport.headersAt)
+                .withPhase(RequestMetrics.Phase.DOWNLOAD, transport.headersAt, transport.parseStartedAt)
+                .withPhase(RequestMetrics.Phase.PARSE, transport.parseStartedAt, transport.parsedAt)
+                .withPhase(RequestMetrics.Phase.DELIVERY, transport.parsedAt, SystemClock.elapsedRealtime())
+                .build());
+    }
+
+    /**
+     * @return The HTTP method of this request.
+     */
+    com.podio.sdk.Request.Method getRequestMethod() {
+        switch (getMethod()) {
+            case com.android.volley.Request.Method.DELETE:
+                return com.podio.sdk.Request.Method.DELETE;
+            case com.android.volley.Request.Method.POST:
+                return com.podio.sdk.Request.Method.POST;
+            case com.android.volley.Request.Method.PUT:
+                return com.podio.sdk.Request.Method.PUT;
+            default:
+                return com.podio.sdk.Request.Method.GET;
+        }
+    }
+
+    /**
+     * Adds a callback that will be notified once the transport of this request has finished. The
+     * callback is never called if the request has already finished.
+     *
+     * @param finishListener
+     *         The callback implementation.
+     */
+    void addFinishListener(FinishListener finishListener) {
+        synchronized (followers) {
+            if (finishListener != null && !isFinished) {
+                finishListeners.add(finishListener);
+            }
+        }
+    }
+
+    /**
+     * Sets the priority this request is served with. Higher priority requests are served before
+     * lower priority requests.
+     *
+     * @param priority
+     *         The new priority, null is treated as normal priority.
+     */
+    void setRequestPriority(com.podio.sdk.Request.Priority priority) {
+        this.priority = priority != null ? priority : com.podio.sdk.Request.Priority.NORMAL;
+    }
+
+    com.podio.sdk.Request.Priority getRequestPriority() {
+        return priority;
+    }
+
+    /**
+     * Enables HTTP revalidation of this request through the given cache. Only GET requests that
+     * expect a parsed result should be revalidated.
+     *
+     * @param revalidationCache
+     *         The cache to revalidate the response against, or null to disable revalidation.
+     */
+    void setRevalidationCache(RevalidationCache revalidationCache) {
+        this.revalidationCache = revalidationCache;
+    }
+
     public ErrorListener removeErrorListener(ErrorListener errorListener) {
         return callbackManager.removeErrorListener(errorListener);
     }
@@ -301,6 +906,380 @@ public class VolleyRequest<T> extends Request<T> implements com.podio.sdk.Reques
         return callbackManager.removeSessionListener(sessionListener);
     }
 
+    /**
+     * Marks the transport of this request as finished and notifies the finish listeners. This
+     * method has no effect if the request is already finished.
+     *
+     * @return The followers of this request at the time of finishing, or an empty list if the
+     * request had already finished.
+     */
+    private List<VolleyRequest<T>> finish() {
+        ArrayList<VolleyRequest<T>> snapshot;
+        ArrayList<FinishListener> listeners;
+
+        synchronized (followers) {
+            if (isFinished) {
+                return new ArrayList<VolleyRequest<T>>(0);
+            }
+
+            isFinished = true;
+            snapshot = new ArrayList<VolleyRequest<T>>(followers);
+            listeners = new ArrayList<FinishListener>(finishListeners);
+            finishListeners.clear();
+        }
+
+        for (FinishListener listener : listeners) {
+            listener.onFinished(this);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Detaches a canceled follower from this request. If this request has been canceled by its own
+     * caller, and the follower was the last one waiting for the response, then the network round
+     * trip is canceled as well.
+     *
+     * @param follower
+     *         The follower to detach.
+     */
+    private void detachFollower(VolleyRequest<T> follower) {
+        boolean isAbandoned;
+
+        synchronized (followers) {
+            followers.remove(follower);
+            isAbandoned = !isFinished && isCallerCanceled && followers.isEmpty();
+
+            if (isAbandoned) {
+                super.cancel();
+            }
+        }
+
+        if (isAbandoned) {
+            releaseTransport();
+        }
+    }
+
+    /**
+     * Stops a canceled request from being replayed and releases anyone waiting for it. A canceled
+     * request will never be parsed, so this is our last chance to do so.
+     */
+    private void releaseTransport() {
+        VolleyRequest<T> replay = this.replay;
+        if (replay != null) {
+            replay.cancel();
+        }
+
+        for (VolleyRequest<T> branch : getBranches()) {
+            branch.cancel();
+        }
+
+        finish();
+
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    private List<VolleyRequest<T>> getFollowers() {
+        synchronized (followers) {
+            return new ArrayList<VolleyRequest<T>>(followers);
+        }
+    }
+
+    private List<VolleyRequest<T>> getBranches() {
+        synchronized (followers) {
+            return branches != null ?
+                    new ArrayList<VolleyRequest<T>>(branches) :
+                    new ArrayList<VolleyRequest<T>>(0);
+        }
+    }
+
+    private boolean hasBranches() {
+        synchronized (followers) {
+            return branches != null;
+        }
+    }
+
+    /**
+     * Publishes the parsed result (or error) of this request to anyone waiting for it, including
+     * any attached followers. This method is executed on the worker thread.
+     */
+    private void onParsed() {
+        parsedAt = SystemClock.elapsedRealtime();
+        publish(this, this, result, error);
+    }
+
+    /**
+     * Publishes a parsed result (or error). A replay, or a branch, publishes through the request
+     * it was created for. A request with branches only publishes the first successful response,
+     * or the error of its last open branch, and cancels the branches that lost. This method is
+     * executed on the worker thread.
+     *
+     * @param source
+     *         The request that was parsed, or the replay or branch of this request it was parsed
+     *         through.
+     * @param transport
+     *         The request that was parsed.
+     */
+    private void publish(VolleyRequest<T> source, VolleyRequest<T> transport, T result, PodioError error) {
+        if (origin != null) {
+            finish();
+            origin.publish(this, transport, result, error);
+            return;
+        }
+
+        ArrayList<VolleyRequest<T>> losers = null;
+
+        synchronized (followers) {
+            if (branches != null) {
+                if (isPublished) {
+                    return;
+                }
+
+                if (error != null && openBranchCount > 1) {
+                    // Another branch may still succeed.
+                    openBranchCount--;
+                    return;
+                }
+
+                isPublished = true;
+                losers = new ArrayList<VolleyRequest<T>>(branches);
+                losers.remove(source);
+            }
+        }
+
+        this.result = result;
+        this.error = error;
+        this.transport = transport;
+
+        if (losers != null) {
+            for (VolleyRequest<T> loser : losers) {
+                loser.cancel();
+            }
+        }
+
+        for (VolleyRequest<T> follower : finish()) {
+            follower.result = result;
+            follower.error = error;
+            follower.isParsed = true;
+            follower.finish();
+
+            synchronized (follower) {
+                follower.notifyAll();
+            }
+        }
+
+        synchronized (this) {
+            isParsed = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Delivers the parsed error of this request to its callbacks and to any followers. A replay
+     * delivers through the request it was replayed for. This method is executed on the main
+     * thread.
+     */
+    private void dispatchError() {
+        if (origin != null) {
+            origin.dispatchError();
+            return;
+        }
+
+        if (hasBranches()) {
+            dispatchPublished();
+            return;
+        }
+
+        notifyError();
+    }
+
+    /**
+     * Delivers the parsed result of this request to its callbacks and to any followers. A replay
+     * delivers through the request it was replayed for. This method is executed on the main
+     * thread.
+     */
+    private void dispatchResult(T result) {
+        if (origin != null) {
+            origin.dispatchResult(result);
+            return;
+        }
+
+        if (hasBranches()) {
+            dispatchPublished();
+            return;
+        }
+
+        notifyResult(result);
+    }
+
+    /**
+     * Delivers whatever a request with branches has published, exactly once. The deliveries of
+     * the branches that lost, or whose error was dropped, are ignored. This method is executed on
+     * the main thread.
+     */
+    private void dispatchPublished() {
+        if (!isParsed || isDispatched) {
+            return;
+        }
+
+        isDispatched = true;
+
+        if (error != null) {
+            notifyError();
+        } else {
+            notifyResult(result);
+        }
+    }
+
+    private void notifyError() {
+        isDone = true;
+        reportMetrics();
+
+        try {
+            if (!isCallerCanceled) {
+                callbackManager.deliverError(this.error);
+            }
+        } finally {
+            for (VolleyRequest<T> follower : getFollowers()) {
+                follower.dispatchError();
+            }
+        }
+    }
+
+    private void notifyResult(T result) {
+        isDone = true;
+        reportMetrics();
+
+        if (!isCallerCanceled) {
+            if (hasSessionChanged) {
+                callbackManager.deliverSession();
+            }
+
+            callbackManager.deliverResult(result);
+        }
+
+        for (VolleyRequest<T> follower : getFollowers()) {
+            follower.dispatchResult(result);
+        }
+    }
+
+    /**
+     * @return A copy of this request which publishes its result (or error) through this request.
+     */
+    private VolleyRequest<T> copy() {
+        VolleyRequest<T> copy = new VolleyRequest<T>(getMethod(), getUrl(), classOfResult, isAuthRequest);
+        copy.headers.putAll(headers);
+        copy.params.putAll(params);
+        copy.contentType = contentType;
+        copy.body = body;
+        copy.revalidationCache = revalidationCache;
+        copy.priority = priority;
+        copy.circuitBreaker = circuitBreaker;
+        copy.retryHandler = retryHandler;
+        copy.rateLimiter = rateLimiter;
+        copy.deadline = deadline;
+        copy.latencyTracker = latencyTracker;
+        copy.origin = this;
+
+        return copy;
+    }
+
+    /**
+     * Records the start of parsing, which is also the end of the download. This method is executed
+     * on the worker thread.
+     */
+    private void onParseStarted(NetworkResponse networkResponse) {
+        parseStartedAt = SystemClock.elapsedRealtime();
+
+        if (networkResponse != null) {
+            statusCode = networkResponse.statusCode;
+            bytesReceived = networkResponse.data != null ? networkResponse.data.length : 0L;
+        }
+    }
+
+    private boolean isUnauthorized(VolleyError volleyError) {
+        return volleyError instanceof AuthFailureError
+                && getResponseCode(volleyError.networkResponse) == HttpURLConnection.HTTP_UNAUTHORIZED;
+    }
+
+    /**
+     * Brings the budget of the rate limiter in line with the response. This method is executed on
+     * the worker thread.
+     */
+    private void updateRateLimit(NetworkResponse networkResponse) {
+        if (rateLimiter == null || networkResponse == null) {
+            return;
+        }
+
+        if (networkResponse.statusCode == HTTP_ENHANCE_YOUR_CALM || networkResponse.statusCode == HTTP_TOO_MANY_REQUESTS) {
+            rateLimiter.onRateLimited();
+        } else {
+            rateLimiter.update(getHeader(networkResponse.headers, RateLimiter.HEADER_LIMIT),
+                    getHeader(networkResponse.headers, RateLimiter.HEADER_REMAINING));
+        }
+    }
+
+    /**
+     * @return Boolean true if the error suggests that the server is struggling (a timeout, a
+     * broken connection or a 5xx response), boolean false if the device is offline or the server
+     * did respond on the merits of the request.
+     */
+    private boolean isServiceFailure(VolleyError volleyError) {
+        if (volleyError instanceof NoConnectionError) {
+            return false;
+        }
+
+        if (volleyError instanceof TimeoutError || volleyError instanceof com.android.volley.NetworkError) {
+            return true;
+        }
+
+        return getResponseCode(volleyError.networkResponse) >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+    }
+
+    /**
+     * Adds the conditional request headers for any previously cached response. This method is
+     * executed on the worker thread as it may need to read the validators from disk.
+     *
+     * @param accessToken
+     *         The access token this request is sent with.
+     */
+    private void addRevalidationHeaders(String accessToken) {
+        headers.remove("If-None-Match");
+        headers.remove("If-Modified-Since");
+
+        if (revalidationCache == null || isAuthRequest) {
+            revalidationKey = null;
+            return;
+        }
+
+        revalidationKey = RevalidationCache.buildKey(getUrl(), accessToken);
+        RevalidationCache.Entry entry = revalidationCache.get(revalidationKey);
+
+        if (entry != null) {
+            if (Utils.notEmpty(entry.eTag)) {
+                headers.put("If-None-Match", entry.eTag);
+            }
+
+            if (Utils.notEmpty(entry.lastModified)) {
+                headers.put("If-Modified-Since", entry.lastModified);
+            }
+        }
+    }
+
+    private String getHeader(Map<String, String> headers, String name) {
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    return header.getValue();
+                }
+            }
+        }
+
+        return null;
+    }
+
     private String getResponseBody(NetworkResponse networkResponse) {
         try {
             String charSet = HttpHeaderParser.parseCharset(networkResponse.headers);